@@ -0,0 +1,89 @@
+package frc.robot.telemetry;
+
+import com.ctre.phoenix6.mechanisms.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants.DriveConstants;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/*
+ * Run with the gc profiler (on by default in build.gradle) and check gc.alloc.rate.norm. Every
+ * benchmark except telemeterizeAndLog, which moves the robot, should report 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TelemetryBenchmark {
+    private static final int samples = 256;
+
+    private Telemetry telemetry;
+    private final TelemetrySnapshot snapshot = new TelemetrySnapshot();
+
+    // Drive states as the odometry thread would hand them over, driving a slow arc
+    private final SwerveDriveState[] states = new SwerveDriveState[samples];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        telemetry = new Telemetry(DriveConstants.MaxSpeedMetPerSec, new TelemetryIO() {});
+
+        for (int i = 0; i < samples; i++) {
+            double t = i * 0.004;
+            SwerveDriveState state = new SwerveDriveState();
+            state.Pose = new Pose2d(2.0 + t, 4.0 + 0.5 * t * t, Rotation2d.fromRadians(0.3 * t));
+            state.ModuleStates = new SwerveModuleState[4];
+            state.ModuleTargets = new SwerveModuleState[4];
+            for (int m = 0; m < 4; m++) {
+                state.ModuleStates[m] =
+                        new SwerveModuleState(1.0 + t, Rotation2d.fromRadians(0.1 * m + t));
+                state.ModuleTargets[m] =
+                        new SwerveModuleState(1.1 + t, Rotation2d.fromRadians(0.1 * m + t));
+            }
+            states[i] = state;
+        }
+        telemetry.telemeterize(states[0]);
+    }
+
+    @Benchmark
+    public Telemetry telemeterize() {
+        index = (index + 1) & (samples - 1);
+        telemetry.telemeterize(states[index]);
+        return telemetry;
+    }
+
+    @Benchmark
+    public SwerveModuleState[] getModuleStates() {
+        return telemetry.getModuleStates();
+    }
+
+    @Benchmark
+    public TelemetrySnapshot readSnapshot() {
+        telemetry.readSnapshot(snapshot);
+        return snapshot;
+    }
+
+    @Benchmark
+    public Telemetry logStationary() {
+        // Same odometry state every cycle, as when the robot is sitting still
+        telemetry.telemeterize(states[0]);
+        telemetry.logDataSynchronously();
+        return telemetry;
+    }
+
+    @Benchmark
+    public Telemetry telemeterizeAndLog() {
+        // A new pose every cycle only costs the Pose3d rebuilt for logging
+        index = (index + 1) & (samples - 1);
+        telemetry.telemeterize(states[index]);
+        telemetry.logDataSynchronously();
+        return telemetry;
+    }
+}
@@ -0,0 +1,39 @@
+package frc.robot.utils;
+
+import frc.robot.Constants.DriveConstants;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeadbandBenchmark {
+    private static final int samples = 1024;
+
+    private final double[] inputX = new double[samples];
+    private final double[] inputY = new double[samples];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(401);
+        for (int i = 0; i < samples; i++) {
+            inputX[i] = random.nextDouble() * 2.0 - 1.0;
+            inputY[i] = random.nextDouble() * 2.0 - 1.0;
+        }
+    }
+
+    @Benchmark
+    public double[] twoAxisDeadband() {
+        index = (index + 1) & (samples - 1);
+        return Deadband.twoAxisDeadband(
+                inputX[index], inputY[index], DriveConstants.deadbandPercent);
+    }
+}
@@ -0,0 +1,79 @@
+package frc.robot.utils;
+
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.utils.FieldFinder.FieldLocations;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldFinderBenchmark {
+    private static final int samples = 1024;
+
+    private final double[] x = new double[samples];
+    private final double[] y = new double[samples];
+    private final double[] dx = new double[samples];
+    private final double[] dy = new double[samples];
+    private final double[] heading = new double[samples];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        // Random robot positions on the field, moving up to 2.5 m along each axis over the lookahead
+        Random random = new Random(401);
+        for (int i = 0; i < samples; i++) {
+            x[i] = random.nextDouble() * FieldConstants.lengthM;
+            y[i] = random.nextDouble() * FieldConstants.widthM;
+            dx[i] = (random.nextDouble() * 2.0 - 1.0) * 2.5;
+            dy[i] = (random.nextDouble() * 2.0 - 1.0) * 2.5;
+            heading[i] = (random.nextDouble() * 2.0 - 1.0) * Math.PI;
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (samples - 1);
+        return index;
+    }
+
+    @Benchmark
+    public FieldLocations whereAmI() {
+        int i = next();
+        return FieldFinder.whereAmI(x[i], y[i]);
+    }
+
+    @Benchmark
+    public boolean willIHitBlueStage() {
+        int i = next();
+        return FieldFinder.willIHitThis(x[i], y[i], dx[i], dy[i], FieldLocations.BLUE_STAGE);
+    }
+
+    @Benchmark
+    public boolean willIHitEitherStage() {
+        // Center point only, the check ScoringSubsystem.willHitStage() used before the footprint
+        int i = next();
+        return FieldFinder.willIHitThis(x[i], y[i], dx[i], dy[i], FieldLocations.BLUE_STAGE)
+                || FieldFinder.willIHitThis(x[i], y[i], dx[i], dy[i], FieldLocations.RED_STAGE);
+    }
+
+    @Benchmark
+    public boolean willIHitStageFootprint() {
+        int i = next();
+        return FieldFinder.willIHitStage(
+                x[i],
+                y[i],
+                heading[i],
+                dx[i],
+                dy[i],
+                DriveConstants.bumperLengthMeters / 2.0,
+                DriveConstants.bumperWidthMeters / 2.0);
+    }
+}
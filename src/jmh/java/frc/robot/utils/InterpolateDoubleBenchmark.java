@@ -0,0 +1,77 @@
+package frc.robot.utils;
+
+import frc.robot.Constants.ScoringConstants;
+import frc.robot.utils.InterpolateDouble.InterpolationMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InterpolateDoubleBenchmark {
+    private InterpolateDouble shooterInterpolated;
+    private InterpolateDouble aimerInterpolated;
+    private InterpolateDouble aimerCubic;
+    private UniformInterpolateDouble shooterUniform;
+
+    // Distances cover the whole table plus a little past both ends
+    private final double[] distances = new double[1024];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        shooterInterpolated = new InterpolateDouble(ScoringConstants.getShooterMap());
+        aimerInterpolated =
+                new InterpolateDouble(
+                        ScoringConstants.getAimerMap(), 0.0, ScoringConstants.aimMaxAngleRadians);
+        aimerCubic =
+                new InterpolateDouble(
+                        ScoringConstants.getAimerMap(),
+                        0.0,
+                        ScoringConstants.aimMaxAngleRadians,
+                        InterpolationMode.MONOTONE_CUBIC);
+        shooterUniform =
+                new UniformInterpolateDouble(
+                        shooterInterpolated,
+                        0.0,
+                        ScoringConstants.distanceTableMaxMeters,
+                        ScoringConstants.distanceTableStepMeters);
+
+        Random random = new Random(401);
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = random.nextDouble() * 7.0 - 0.5;
+        }
+    }
+
+    private double nextDistance() {
+        index = (index + 1) & (distances.length - 1);
+        return distances[index];
+    }
+
+    @Benchmark
+    public double shooterGetValue() {
+        return shooterInterpolated.getValue(nextDistance());
+    }
+
+    @Benchmark
+    public double aimerGetValue() {
+        return aimerInterpolated.getValue(nextDistance());
+    }
+
+    @Benchmark
+    public double aimerCubicGetValue() {
+        return aimerCubic.getValue(nextDistance());
+    }
+
+    @Benchmark
+    public double shooterUniformGetValue() {
+        return shooterUniform.getValue(nextDistance());
+    }
+}
@@ -0,0 +1,75 @@
+package frc.robot.utils;
+
+import frc.robot.Constants.ScoringConstants;
+import frc.robot.utils.InterpolateDouble.InterpolationMode;
+import java.util.HashMap;
+
+/**
+ * Compares monotone cubic interpolation against linear interpolation on every scoring table. For
+ * each table it prints the largest and RMS difference between the two modes, and the largest jump
+ * in slope between neighbouring samples (the kinks that show up as aimer setpoint jumps). Run it
+ * with ./gradlew compareInterpolation
+ */
+public class InterpolationModeComparison {
+    private static final double sampleStep = 0.001;
+
+    public static void main(String[] args) {
+        System.out.printf(
+                "%-24s %12s %12s %16s %16s%n",
+                "table", "max diff", "rms diff", "linear max kink", "cubic max kink");
+
+        compare("aimer", ScoringConstants.getAimerMap());
+        compare("shooter", ScoringConstants.getShooterMap());
+        compare("aimer tolerance", ScoringConstants.aimerToleranceTable());
+        compare("time to goal", ScoringConstants.timeToGoalMap());
+        compare("time to put aim down", ScoringConstants.timeToPutAimDownMap());
+        compare("aimer avoid elevator", ScoringConstants.aimerAvoidElevatorTable());
+    }
+
+    private static void compare(String name, HashMap<Double, Double> map) {
+        InterpolateDouble linear =
+                new InterpolateDouble(
+                        map, -Double.MAX_VALUE, Double.MAX_VALUE, InterpolationMode.LINEAR);
+        InterpolateDouble cubic =
+                new InterpolateDouble(
+                        map, -Double.MAX_VALUE, Double.MAX_VALUE, InterpolationMode.MONOTONE_CUBIC);
+
+        double[] keys = linear.getKeys();
+        double minKey = keys[0];
+        double maxKey = keys[keys.length - 1];
+        int samples = (int) Math.ceil((maxKey - minKey) / sampleStep);
+
+        double maxDiff = 0.0;
+        double sumSquaredDiff = 0.0;
+        double linearMaxKink = 0.0;
+        double cubicMaxKink = 0.0;
+        double lastLinearSlope = Double.NaN;
+        double lastCubicSlope = Double.NaN;
+
+        for (int i = 0; i < samples; i++) {
+            double key = minKey + i * sampleStep;
+            double next = Math.min(key + sampleStep, maxKey);
+
+            double diff = Math.abs(cubic.getValue(key) - linear.getValue(key));
+            maxDiff = Math.max(maxDiff, diff);
+            sumSquaredDiff += diff * diff;
+
+            double linearSlope = (linear.getValue(next) - linear.getValue(key)) / (next - key);
+            double cubicSlope = (cubic.getValue(next) - cubic.getValue(key)) / (next - key);
+            if (i > 0) {
+                linearMaxKink = Math.max(linearMaxKink, Math.abs(linearSlope - lastLinearSlope));
+                cubicMaxKink = Math.max(cubicMaxKink, Math.abs(cubicSlope - lastCubicSlope));
+            }
+            lastLinearSlope = linearSlope;
+            lastCubicSlope = cubicSlope;
+        }
+
+        System.out.printf(
+                "%-24s %12.5f %12.5f %16.5f %16.5f%n",
+                name,
+                maxDiff,
+                Math.sqrt(sumSquaredDiff / Math.max(1, samples)),
+                linearMaxKink,
+                cubicMaxKink);
+    }
+}
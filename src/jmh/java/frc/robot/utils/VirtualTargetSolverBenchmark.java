@@ -0,0 +1,58 @@
+package frc.robot.utils;
+
+import frc.robot.Constants.FieldConstants;
+import frc.robot.Constants.ScoringConstants;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VirtualTargetSolverBenchmark {
+    private static final int samples = 1024;
+
+    private final VirtualTargetSolver solver =
+            new VirtualTargetSolver(
+                    ScoringConstants.getMovingShotTable(ScoringConstants.getShotTable()),
+                    ScoringConstants.virtualTargetMaxIterations,
+                    ScoringConstants.virtualTargetToleranceMeters);
+    private final VirtualTargetSolver.Solution solution = new VirtualTargetSolver.Solution();
+
+    private final double[] xs = new double[samples];
+    private final double[] ys = new double[samples];
+    private final double[] velocityXs = new double[samples];
+    private final double[] velocityYs = new double[samples];
+    private int index = 0;
+
+    @Setup
+    public void setup() {
+        // Shooting positions in the blue half of the field
+        Random random = new Random(401);
+        for (int i = 0; i < samples; i++) {
+            xs[i] = 1.0 + random.nextDouble() * 5.0;
+            ys[i] = 1.0 + random.nextDouble() * 6.0;
+            velocityXs[i] = random.nextDouble() * 4.0 - 2.0;
+            velocityYs[i] = random.nextDouble() * 4.0 - 2.0;
+        }
+    }
+
+    @Benchmark
+    public VirtualTargetSolver.Solution solve() {
+        index = (index + 1) & (samples - 1);
+        return solver.solve(
+                xs[index],
+                ys[index],
+                velocityXs[index],
+                velocityYs[index],
+                FieldConstants.fieldToBlueSpeaker.getX(),
+                FieldConstants.fieldToBlueSpeaker.getY(),
+                solution);
+    }
+}
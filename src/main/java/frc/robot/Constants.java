@@ -24,6 +24,12 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Filesystem;
 import frc.robot.subsystems.drive.CommandSwerveDrivetrain;
 import frc.robot.subsystems.localization.Camera.CameraTrustZone;
+import frc.robot.utils.FieldZones;
+import frc.robot.utils.InterpolateDouble;
+import frc.robot.utils.InterpolateDouble.InterpolationMode;
+import frc.robot.utils.MovingShotTable;
+import frc.robot.utils.ShotTable;
+import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,6 +65,12 @@ public final class Constants {
         public static final boolean demoMode = true;
 
         public static final boolean enableLEDS = true;
+
+        public static final boolean profileLoop = true;
+
+        // Use the Kalman filter estimates instead of the IIR filtered velocity in RobotState. Off
+        // until its gains have been checked against real logs, both estimates are logged to compare
+        public static final boolean useKalmanVelocity = false;
     }
 
     public static final class ConversionConstants {
@@ -72,7 +84,35 @@ public final class Constants {
         public static final double kRadiansToDegrees = 180.0 / Math.PI;
     }
 
-    public static final class CANDevices {}
+    public static final class CANDevices {
+        public static final String rioBusName = "rio";
+        public static final String canivoreBusName = "Canivore";
+
+        // Rates for the status signals each device is budgeted, everything else is turned off
+        public static final double mechanismSignalFrequencyHz = 50.0; // Once per loop
+        public static final double followerSignalFrequencyHz = 100.0; // Read by follower motors
+        public static final double canCoderSignalFrequencyHz = 100.0; // Fused into steer motors
+
+        // For the estimated utilization, a classic CAN frame with 8 data bytes and bit stuffing
+        public static final double estimatedFrameBits = 128.0;
+        public static final double busBitsPerSecond = 1.0e6;
+
+        public static final double utilizationLogPeriodSeconds = 1.0;
+
+        // How long a repeated SPARK setpoint is skipped before it is resent anyway. Config commands
+        // are only resent on a change or after the device resets.
+        public static final double controlKeepAliveSeconds = 0.1;
+
+        // Tries a config change gets on the config thread before it is reported as failed
+        public static final int configApplyAttempts = 3;
+
+        // Tries each startup config block gets before the device is reported as failed
+        public static final int startupConfigAttempts = 3;
+
+        // Startup config retries wait this long before the second try, doubling after that
+        public static final double startupConfigBackoffSeconds = 0.05;
+        public static final double startupConfigTimeoutSeconds = 5.0;
+    }
 
     public static final class SensorConstants {
         public static final int indexerSensorPort = 1;
@@ -86,11 +126,39 @@ public final class Constants {
         public static final double deadbandPercent = 0.16;
         public static final double maxAccelerationMetersPerSecSquared = 7.0;
 
+        // Outside of the bumpers, used for stage avoidance
+        public static final double bumperLengthMeters = Units.inchesToMeters(33.5);
+        public static final double bumperWidthMeters = Units.inchesToMeters(33.5);
+
+        // Kalman filter Telemetry uses to estimate field velocity and acceleration
+        public static final double kalmanJerkStdDev = 10.0; // m/s^3
+        public static final double kalmanPositionStdDevMeters = 0.02;
+        public static final double kalmanModuleVelocityStdDev = 0.15; // m/s
+        // Pose changes bigger than this are reseeds or vision corrections, not motion
+        public static final double kalmanPoseJumpMeters = 0.3;
+        // Longer gaps between odometry samples restart the filter
+        public static final double kalmanMaxTimeStepSeconds = 0.1;
+
+        // Odometry thread rate, the main loop drains every sample through a queue of this size
+        public static final double odometryUpdateFrequencyHz = 250.0;
+        public static final int odometrySampleQueueCapacity = 64;
+
+        // About a second of odometry poses, for latency compensation
+        public static final int poseHistoryCapacity = 256;
+        public static final double maxPosePredictionSeconds = 0.25;
+
+        // The RIO has two cores, reading paths and autos on more threads than that doesn't help
+        public static final int autoLoaderThreads = 2;
+
+        // Paths driven to with driveToPath, whose pathfind commands are built as soon as they load
+        public static final String[] prebuiltPathfindPaths = {
+            "LeftEndgame", "RightEndgame", "FarEndgame"
+        };
+
         public static final Pose2d initialPose =
                 new Pose2d(new Translation2d(), Rotation2d.fromDegrees(90));
 
         public static final double anticipationTime = 0.01;
-        public static final double minimumAnticipationVelocity = 0.0;
 
         public static final double pathfindTransformToleranceMeters = 0.1;
         public static final double pathfindRotationToleranceRadians = 0.1;
@@ -130,6 +198,21 @@ public final class Constants {
         public static final double lengthM = 16.451;
         public static final double widthM = 8.211;
 
+        // Resolution of the precomputed grid FieldFinder uses to look up field locations
+        public static final double fieldFinderCellSizeMeters = 0.05;
+
+        // How far the area test lets a point be outside a stage, in square meters of extra area
+        public static final double stageAreaTolerance = 0.05;
+
+        // Zone polygons in deploy/fieldzones/, indexed on a grid of this resolution
+        public static final String fieldZonesName = "2024-crescendo";
+        public static final double fieldZoneCellSizeMeters = 0.5;
+        // Zones FieldFinder needs, without which the built-in 2024 zones are used instead
+        private static final String[] requiredZones = {
+            "RED_STAGE", "BLUE_STAGE", "RED_WING", "BLUE_WING"
+        };
+        public static final FieldZones fieldZones = initZones(fieldZonesName);
+
         public static final double midfieldLowThresholdM = 5.87;
         public static final double midfieldHighThresholdM = 10.72;
 
@@ -195,6 +278,41 @@ public final class Constants {
         // TODO: Find actual coordinates of shop source
         public static final Pose2d robotAgainstShopSource =
                 new Pose2d(8.30, 6.80, Rotation2d.fromDegrees(60));
+
+        private static FieldZones initZones(String name) {
+            try {
+                FieldZones zones =
+                        FieldZones.fromJson(
+                                new File(
+                                        Filesystem.getDeployDirectory(),
+                                        "fieldzones/" + name + ".json"),
+                                fieldZoneCellSizeMeters);
+                for (String zone : requiredZones) {
+                    if (zones.getZoneId(zone) == FieldZones.NO_ZONE) {
+                        throw new IOException("Field zone file " + name + " has no " + zone);
+                    }
+                }
+                return zones;
+            } catch (IOException ioe) {
+                DriverStation.reportWarning(
+                        "Failed to load field zones, using the built-in 2024 zones: "
+                                + ioe.getLocalizedMessage(),
+                        false);
+                return builtInZones();
+            }
+        }
+
+        // The 2024 stages and wings, so stage avoidance and shot zones still work without the file
+        private static FieldZones builtInZones() {
+            return new FieldZones(
+                    List.of(requiredZones),
+                    List.of(
+                            new double[] {13.6, 4.0, 10.8, 2.2, 10.8, 5.8},
+                            new double[] {3.0, 4.0, 5.6, 5.8, 5.6, 2.2},
+                            new double[] {12.0, -1.0, 17.451, -1.0, 17.451, 9.211, 12.0, 9.211},
+                            new double[] {-1.0, -1.0, 4.6, -1.0, 4.6, 9.211, -1.0, 9.211}),
+                    fieldZoneCellSizeMeters);
+        }
     }
 
     public static final class VisionConstants {
@@ -375,7 +493,7 @@ public final class Constants {
         private static final boolean kInvertLeftSide = false;
         private static final boolean kInvertRightSide = true;
 
-        private static final String kCANbusName = "Canivore";
+        private static final String kCANbusName = CANDevices.canivoreBusName;
         private static final int kPigeonId = 1;
 
         // These are only used for simulation
@@ -494,7 +612,12 @@ public final class Constants {
 
         public static final CommandSwerveDrivetrain DriveTrain =
                 new CommandSwerveDrivetrain(
-                        DrivetrainConstants, FrontLeft, FrontRight, BackLeft, BackRight);
+                        DrivetrainConstants,
+                        DriveConstants.odometryUpdateFrequencyHz,
+                        FrontLeft,
+                        FrontRight,
+                        BackLeft,
+                        BackRight);
     }
 
     public static final class ScoringConstants {
@@ -578,6 +701,26 @@ public final class Constants {
         public static final double demoShooterRPM = 1000;
         public static final double demoAimAngle = 0.4;
 
+        // From deciding to shoot to the note leaving the shooter, shots are aimed from where the
+        // robot will be then
+        public static final double shotReleaseLatencySeconds = 0.08; // TODO: Tune time
+
+        // Distance-keyed tables are resampled onto a grid with this spacing so that lookups don't
+        // need to search. The grid runs from 0 to distanceTableMaxMeters.
+        public static final double distanceTableStepMeters = 0.01;
+        public static final double distanceTableMaxMeters = 10.0;
+
+        // Grid for the time of flight table that seeds the virtual target solve, keyed by
+        // distance and radial velocity toward the speaker
+        public static final double movingTableDistanceStepMeters = 0.1;
+        public static final double movingTableMaxRadialVelocity = 4.0;
+        public static final double movingTableRadialVelocityStep = 0.25;
+
+        // Shoot-on-the-move solve, starting from the moving table. Each iteration moves the virtual
+        // target by velocity times the time of flight to it
+        public static final int virtualTargetMaxIterations = 8;
+        public static final double virtualTargetToleranceMeters = 0.005;
+
         // NOTE - This should be monotonically increasing
         // Key - Distance in meters
         // Value - Aimer angle in radians
@@ -679,6 +822,32 @@ public final class Constants {
 
             return map;
         }
+
+        // Every distance-keyed curve above, sampled onto one grid so they are always looked up
+        // together and with the same clamps. The aimer curve is monotone cubic so its slope
+        // doesn't jump at each key while driving through it.
+        public static ShotTable getShotTable() {
+            return new ShotTable(
+                    new InterpolateDouble(getShooterMap()),
+                    new InterpolateDouble(
+                            getAimerMap(),
+                            0.0,
+                            aimMaxAngleRadians,
+                            InterpolationMode.MONOTONE_CUBIC),
+                    new InterpolateDouble(aimerToleranceTable()),
+                    new InterpolateDouble(timeToGoalMap(), 0.0, 2.0),
+                    distanceTableMaxMeters,
+                    distanceTableStepMeters);
+        }
+
+        public static MovingShotTable getMovingShotTable(ShotTable shotTable) {
+            return new MovingShotTable(
+                    shotTable,
+                    distanceTableMaxMeters,
+                    movingTableDistanceStepMeters,
+                    movingTableMaxRadialVelocity,
+                    movingTableRadialVelocityStep);
+        }
     }
 
     public static final class LEDConstants {
@@ -692,4 +861,19 @@ public final class Constants {
         public static final int ledSwitchPort = 3;
         public static final int timeOutputPort = 4;
     }
+
+    public static final class ProfilerConstants {
+        // Time one out of every N cycles, 1 to time every cycle
+        public static final int sampleEveryNCycles = 1;
+
+        // Number of samples each histogram keeps (250 samples is 5 seconds when every cycle is timed)
+        public static final int windowSize = 250;
+
+        public static final int logPeriodCycles = 50;
+
+        // Startup warmup, run while disabled so auto doesn't pay for class loading and JIT
+        public static final double warmupSeconds = 5.0;
+        public static final int warmupIterationsPerCycle = 100;
+        public static final double warmupScoringStepSeconds = 0.25;
+    }
 }
@@ -5,11 +5,17 @@
 package frc.robot;
 
 import com.ctre.phoenix6.Utils;
-import com.pathplanner.lib.commands.FollowPathCommand;
 import edu.wpi.first.wpilibj.PowerDistribution;
 import edu.wpi.first.wpilibj.PowerDistribution.ModuleType;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.FeatureFlags;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.utils.CANBudget;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.StartupConfigurator;
+import frc.robot.utils.StartupTimeline;
+import frc.robot.utils.StatusSignalRegistry;
 import org.littletonrobotics.junction.LogFileUtil;
 import org.littletonrobotics.junction.LoggedRobot;
 import org.littletonrobotics.junction.Logger;
@@ -30,6 +36,8 @@ public class Robot extends LoggedRobot {
 
     private RobotContainer robotContainer;
 
+    private boolean warmupScheduled = false;
+
     @SuppressWarnings("unused")
     private PowerDistribution pdh;
 
@@ -39,6 +47,7 @@ public class Robot extends LoggedRobot {
 
     @Override
     public void robotInit() {
+        StartupTimeline.begin();
         // Pathfinding.setPathfinder(new LocalADStarAK());
 
         Logger.recordMetadata("ProjectName", "2024 - 401 Comp Robot"); // TODO: Name the robot!
@@ -67,18 +76,44 @@ public class Robot extends LoggedRobot {
             // log
         }
 
+        StartupTimeline.mark("loggerSetup");
         Logger.start();
+        StartupTimeline.markLoggerStarted();
+
+        if (FeatureFlags.runVision) {
+            // Load the tag layout on its own, rather than inside whichever subsystem uses it first
+            VisionConstants.fieldLayout.getTags();
+            StartupTimeline.mark("VisionConstants.initLayout");
+        }
+
         robotContainer = new RobotContainer();
+        StartupTimeline.mark("RobotContainer");
+
+        // The subsystems started configuring their devices in parallel while being constructed
+        StartupConfigurator.awaitAll();
+        StartupTimeline.mark("StartupConfigurator.awaitAll");
+
+        LoopProfiler.install();
 
-        FollowPathCommand.warmupCommand().schedule();
+        StartupTimeline.finish();
     }
 
     @Override
     public void robotPeriodic() {
         double startTime = Utils.getCurrentTimeSeconds() * 1000;
+        LoopProfiler.startCycle();
+
+        LoopProfiler.start("StatusSignalRegistry.refreshAll");
+        StatusSignalRegistry.refreshAll();
+        LoopProfiler.stop("StatusSignalRegistry.refreshAll");
+        CANBudget.logUtilization();
+
+        robotContainer.updateRobotState();
         CommandScheduler.getInstance().run();
 
+        LoopProfiler.start("RobotContainer.robotPeriodic");
         robotContainer.robotPeriodic();
+        LoopProfiler.stop("RobotContainer.robotPeriodic");
 
         double currentTime = Utils.getCurrentTimeSeconds() * 1000;
         double diffTime = currentTime - startTime;
@@ -94,6 +129,8 @@ public class Robot extends LoggedRobot {
                     Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
         }
         cycle++;
+
+        LoopProfiler.endCycle();
     }
 
     @Override
@@ -123,6 +160,13 @@ public class Robot extends LoggedRobot {
         CommandScheduler.getInstance().cancelAll();
 
         robotContainer.disabledInit();
+
+        // Scheduled here rather than in robotInit, since the cancelAll above runs when the robot
+        // first starts disabled
+        if (!warmupScheduled) {
+            robotContainer.getWarmupCommand().schedule();
+            warmupScheduled = true;
+        }
     }
 
     @Override
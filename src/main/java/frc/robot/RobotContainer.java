@@ -1,12 +1,14 @@
 package frc.robot;
 
 import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.commands.FollowPathCommand;
 import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.DigitalOutput;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -19,8 +21,10 @@ import frc.robot.Constants.ConversionConstants;
 import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.EndgameConstants;
 import frc.robot.Constants.FeatureFlags;
+import frc.robot.Constants.FieldConstants;
 import frc.robot.Constants.IOConstants;
 import frc.robot.Constants.Mode;
+import frc.robot.Constants.ProfilerConstants;
 import frc.robot.Constants.ScoringConstants;
 import frc.robot.Constants.TunerConstants;
 import frc.robot.Constants.VisionConstants;
@@ -57,12 +61,14 @@ import frc.robot.subsystems.scoring.ScoringSubsystem.ScoringAction;
 import frc.robot.subsystems.scoring.ShooterIO;
 import frc.robot.subsystems.scoring.ShooterIOSim;
 import frc.robot.subsystems.scoring.ShooterIOTalon;
+import frc.robot.telemetry.RobotState;
 import frc.robot.telemetry.Telemetry;
 import frc.robot.telemetry.TelemetryIO;
 import frc.robot.telemetry.TelemetryIOLive;
 import frc.robot.telemetry.TelemetryIOSim;
 import frc.robot.utils.AllianceUtil;
-import frc.robot.utils.FieldFinder;
+import frc.robot.utils.StartupTimeline;
+import frc.robot.utils.Warmup;
 import frc.robot.utils.feedforward.TuneG;
 import frc.robot.utils.feedforward.TuneS;
 import frc.robot.utils.notesimulator.Note;
@@ -82,6 +88,7 @@ public class RobotContainer {
 
     CommandSwerveDrivetrain drivetrain = FeatureFlags.runDrive ? TunerConstants.DriveTrain : null;
     Telemetry driveTelemetry;
+    RobotState robotState = new RobotState();
 
     SendableChooser<String> testModeChooser = new SendableChooser<String>();
 
@@ -96,8 +103,11 @@ public class RobotContainer {
 
     public RobotContainer() {
         configureSubsystems();
+        StartupTimeline.mark("RobotContainer.configureSubsystems");
         configureModes();
+        StartupTimeline.mark("RobotContainer.configureModes");
         configureAutonomous();
+        StartupTimeline.mark("RobotContainer.configureAutonomous");
         if (Constants.currentMode == Mode.SIM) {
             NoteManager.addNote(new Note(driveTelemetry::getFieldToRobot, true, "1"));
             NoteManager.addNote(
@@ -124,6 +134,7 @@ public class RobotContainer {
         }
         if (FeatureFlags.runDrive) {
             drivetrain.configurePathPlanner();
+            StartupTimeline.mark("configurePathPlanner");
         }
 
         SmartDashboard.putNumber("Debug/currentTimeMillis", System.currentTimeMillis());
@@ -225,19 +236,12 @@ public class RobotContainer {
 
         if (FeatureFlags.runDrive) {
             drivetrain.registerTelemetry(driveTelemetry::telemeterize);
-            drivetrain.setPoseSupplier(driveTelemetry::getFieldToRobot);
-            drivetrain.setVelocitySupplier(driveTelemetry::getVelocity);
+            drivetrain.setRobotState(robotState);
         }
 
         if (FeatureFlags.runScoring) {
             if (FeatureFlags.runDrive) {
-                scoringSubsystem.setPoseSupplier(driveTelemetry::getFieldToRobot);
-
-                scoringSubsystem.setVelocitySupplier(
-                        () ->
-                                VecBuilder.fill(
-                                        driveTelemetry.getVelocityX(),
-                                        driveTelemetry.getVelocityY()));
+                scoringSubsystem.setRobotState(robotState);
 
                 scoringSubsystem.setDriveAllignedSupplier(() -> drivetrain.isAligned());
             }
@@ -473,6 +477,39 @@ public class RobotContainer {
         }
     }
 
+    /**
+     * Returns a command that runs first-call code while disabled: PathPlanner path following, the
+     * per-cycle math, and the scoring state machine's aiming states. It stops as soon as the robot
+     * is enabled.
+     */
+    public Command getWarmupCommand() {
+        Command computation =
+                Commands.run(() -> Warmup.run(ProfilerConstants.warmupIterationsPerCycle))
+                        .withTimeout(ProfilerConstants.warmupSeconds);
+
+        Command scoring = Commands.none();
+        if (FeatureFlags.runScoring) {
+            double step = ProfilerConstants.warmupScoringStepSeconds;
+            // The motors are disabled, so this only runs the state machine
+            scoring =
+                    Commands.sequence(
+                                    Commands.runOnce(
+                                            () -> scoringSubsystem.setAction(ScoringAction.AIM)),
+                                    Commands.waitSeconds(step),
+                                    Commands.runOnce(
+                                            () ->
+                                                    scoringSubsystem.setAction(
+                                                            ScoringAction.AMP_AIM)),
+                                    Commands.waitSeconds(step))
+                            .finallyDo(() -> scoringSubsystem.setAction(ScoringAction.WAIT));
+        }
+
+        return Commands.parallel(FollowPathCommand.warmupCommand(), computation, scoring)
+                .until(DriverStation::isEnabled)
+                .ignoringDisable(true)
+                .withName("Warmup");
+    }
+
     public void disabledInit() {
         if (timeDigitalOutput != null) {
             timeDigitalOutput.set(false);
@@ -897,30 +934,36 @@ public class RobotContainer {
                             () -> rightJoystick.top().getAsBoolean(),
                             () ->
                                     VecBuilder.fill(
-                                            driveTelemetry.getVelocityX(),
-                                            driveTelemetry.getVelocityY())));
+                                            robotState.getVelocityX(),
+                                            robotState.getVelocityY())));
+        }
+    }
+
+    /** Takes this cycle's snapshot of the robot's state, before the scheduler runs */
+    public void updateRobotState() {
+        if (FeatureFlags.runDrive) {
+            drivetrain.drainOdometrySamples(robotState);
+            robotState.update(driveTelemetry);
         }
     }
 
     public void robotPeriodic() {
         if (FeatureFlags.runDrive) {
+            Pose2d pose = robotState.getPose();
+            Logger.recordOutput("localizer/whereAmI", robotState.getFieldLocation());
             Logger.recordOutput(
-                    "localizer/whereAmI",
-                    FieldFinder.whereAmI(
-                            driveTelemetry.getFieldToRobot().getTranslation().getX(),
-                            driveTelemetry.getFieldToRobot().getTranslation().getY()));
+                    "localizer/fieldZone",
+                    FieldConstants.fieldZones.getZoneName(robotState.getFieldZone()));
 
-            Logger.recordOutput("localizer/RobotPose", driveTelemetry.getFieldToRobot());
+            Logger.recordOutput("localizer/RobotPose", pose);
             Logger.recordOutput(
                     "localizer/RobotVelocity",
                     new Pose2d(
-                            driveTelemetry.getFieldToRobot().getX()
-                                    + (driveTelemetry.getVelocity().getX()
-                                            * DriveConstants.anticipationTime),
-                            driveTelemetry.getFieldToRobot().getY()
-                                    + (driveTelemetry.getVelocity().getY()
-                                            * DriveConstants.anticipationTime),
-                            driveTelemetry.getFieldToRobot().getRotation()));
+                            pose.getX()
+                                    + (robotState.getVelocityX() * DriveConstants.anticipationTime),
+                            pose.getY()
+                                    + (robotState.getVelocityY() * DriveConstants.anticipationTime),
+                            pose.getRotation()));
 
             driveTelemetry.logDataSynchronously();
         }
@@ -955,10 +998,12 @@ public class RobotContainer {
     }
 
     public void autoInit() {
-        if (drivetrain.getAutoCommand() != null) {
+        // Looked up once, since the chooser may change and a missing auto warns on every lookup
+        Command autoCommand = drivetrain.getAutoCommand();
+        if (autoCommand != null) {
             drivetrain.autoInit();
 
-            drivetrain.getAutoCommand().schedule();
+            autoCommand.schedule();
 
             if (FeatureFlags.runScoring) {
                 scoringSubsystem.setAction(ScoringSubsystem.ScoringAction.SHOOT);
@@ -10,6 +10,7 @@ import frc.robot.Constants.LEDConstants;
 import frc.robot.Constants.Mode;
 import frc.robot.subsystems.intake.IntakeSubsystem;
 import frc.robot.subsystems.scoring.ScoringSubsystem;
+import frc.robot.utils.LoopProfiler;
 import java.util.function.Supplier;
 
 public class LED extends SubsystemBase {
@@ -51,6 +52,7 @@ public class LED extends SubsystemBase {
 
     @Override
     public void periodic() {
+        LoopProfiler.start("LED.periodic");
 
         clear();
 
@@ -159,6 +161,8 @@ public class LED extends SubsystemBase {
         if (Constants.currentMode == Mode.REAL) {
             led.setData(ledBuffer);
         }
+
+        LoopProfiler.stop("LED.periodic");
     }
 
     public void setVisionWorkingSupplier(Supplier<Boolean> visionWorkingSupplier) {
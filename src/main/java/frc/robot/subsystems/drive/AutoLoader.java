@@ -0,0 +1,336 @@
+package frc.robot.subsystems.drive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.util.GeometryUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.subsystems.drive.PathRepository.LoadedPath;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Loads PathPlanner autos without stalling robot init. The slow part of building an auto is reading
+ * the .auto file and every .path it uses, so each .auto is read on the same pool the {@link
+ * PathRepository} reads the paths on, and then waits only for the paths it uses. Command
+ * composition registers with the CommandScheduler, which isn't thread safe, so the parsed autos are
+ * turned into commands one at a time on the main thread once all of them have been read.
+ *
+ * <p>Autos marked as Choreo autos load their paths from the Choreo trajectories instead of the
+ * PathPlanner paths, the same as PathPlanner does.
+ *
+ * <p>The .auto format and the composed commands mirror {@link
+ * com.pathplanner.lib.commands.PathPlannerAuto} from PathPlannerLib 2024.2.8: the starting pose,
+ * flipped on red, is reset first, then the command tree from the file runs. Check them against
+ * PathPlannerAuto whenever PathPlannerLib is upgraded.
+ */
+public class AutoLoader {
+    private enum StepType {
+        WAIT,
+        NAMED,
+        PATH,
+        SEQUENTIAL,
+        PARALLEL,
+        RACE,
+        DEADLINE
+    }
+
+    // One node of an auto's command tree, paths are looked up by name in the auto's paths
+    private static class Step {
+        final StepType type;
+        final double waitTime;
+        final String name;
+        final List<Step> children;
+
+        Step(StepType type, double waitTime, String name, List<Step> children) {
+            this.type = type;
+            this.waitTime = waitTime;
+            this.name = name;
+            this.children = children;
+        }
+    }
+
+    private static class ParsedAuto {
+        final String name;
+        final Pose2d startingPose;
+        final Step command;
+        // Every path the auto follows, by name
+        final HashMap<String, PathPlannerPath> paths = new HashMap<String, PathPlannerPath>();
+        // Paths it is still waiting on from the repository
+        final HashMap<String, CompletableFuture<LoadedPath>> pendingPaths =
+                new HashMap<String, CompletableFuture<LoadedPath>>();
+        // Includes reading each path it uses, even one another auto also uses
+        double loadTimeSeconds = 0.0;
+
+        ParsedAuto(String name, Pose2d startingPose, Step command) {
+            this.name = name;
+            this.startingPose = startingPose;
+            this.command = command;
+        }
+    }
+
+    private final PathRepository pathRepository;
+    private final Consumer<Pose2d> resetPose;
+    private final BooleanSupplier shouldFlip;
+
+    private final List<CompletableFuture<ParsedAuto>> parsing =
+            new ArrayList<CompletableFuture<ParsedAuto>>();
+    private CompletableFuture<Void> allParsed = null;
+    private long startTime = 0;
+
+    // Only touched from the main thread, filled once every auto has been parsed
+    private final LinkedHashMap<String, Command> autos = new LinkedHashMap<String, Command>();
+    private boolean loaded = false;
+
+    /**
+     * @param pathRepository Paths it has already loaded are reused instead of read again
+     * @param resetPose Resets odometry to the starting pose of an auto
+     * @param shouldFlip Whether autos should be flipped to the red side of the field
+     */
+    public AutoLoader(
+            PathRepository pathRepository, Consumer<Pose2d> resetPose, BooleanSupplier shouldFlip) {
+        this.pathRepository = pathRepository;
+        this.resetPose = resetPose;
+        this.shouldFlip = shouldFlip;
+    }
+
+    /**
+     * Starts reading autos in the background. The path repository must already have started
+     * loading, and AutoBuilder must already be configured. Nothing is submitted to the pool after
+     * this returns, so it can be shut down straight away.
+     *
+     * @param autoNames The names of the .auto files to load, without the extension
+     * @param executor The pool to read the autos on
+     */
+    public void startLoading(List<String> autoNames, ExecutorService executor) {
+        startTime = System.nanoTime();
+
+        for (String name : autoNames) {
+            parsing.add(
+                    CompletableFuture.supplyAsync(() -> parse(name), executor)
+                            .thenCompose(this::resolvePaths));
+        }
+
+        allParsed = CompletableFuture.allOf(parsing.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Builds the auto commands once every auto has been read. Call this every cycle from the main
+     * thread; it does nothing before reading finishes or after the commands are built.
+     *
+     * @return {@code true} on the cycle the autos become available
+     */
+    public boolean update() {
+        if (loaded || allParsed == null || !allParsed.isDone()) {
+            return false;
+        }
+
+        for (CompletableFuture<ParsedAuto> future : parsing) {
+            ParsedAuto auto = future.join();
+            if (auto == null) {
+                continue;
+            }
+
+            long composeStart = System.nanoTime();
+            autos.put(auto.name, compose(auto));
+            double composeTimeSeconds = (System.nanoTime() - composeStart) / 1e9;
+
+            Logger.recordOutput(
+                    "autos/loadTimeSeconds/" + auto.name,
+                    auto.loadTimeSeconds + composeTimeSeconds);
+        }
+        Logger.recordOutput("autos/totalLoadTimeSeconds", (System.nanoTime() - startTime) / 1e9);
+        Logger.recordOutput("autos/loadedCount", autos.size());
+
+        parsing.clear();
+        loaded = true;
+        return true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns a loaded auto
+     *
+     * @param name The name of the .auto file, without the extension
+     * @return The auto's command, or null if it isn't loaded (yet) or failed to load
+     */
+    public Command getAuto(String name) {
+        return autos.get(name);
+    }
+
+    // Runs on the loader threads, so it must not create any commands
+    private ParsedAuto parse(String name) {
+        long start = System.nanoTime();
+        File file =
+                new File(Filesystem.getDeployDirectory(), "pathplanner/autos/" + name + ".auto");
+        try {
+            JsonNode json = new ObjectMapper().readTree(file);
+
+            Pose2d startingPose = null;
+            JsonNode pose = json.path("startingPose");
+            if (pose.isObject()) {
+                startingPose =
+                        new Pose2d(
+                                pose.path("position").path("x").asDouble(),
+                                pose.path("position").path("y").asDouble(),
+                                Rotation2d.fromDegrees(pose.path("rotation").asDouble()));
+            }
+
+            boolean choreoAuto = json.path("choreoAuto").asBoolean(false);
+            List<String> pathNames = new ArrayList<String>();
+            Step command = parseStep(json.path("command"), pathNames);
+
+            ParsedAuto auto = new ParsedAuto(name, startingPose, command);
+            for (String pathName : pathNames) {
+                if (choreoAuto) {
+                    auto.paths.put(pathName, PathPlannerPath.fromChoreoTrajectory(pathName));
+                    continue;
+                }
+
+                CompletableFuture<LoadedPath> loading = pathRepository.getPathFuture(pathName);
+                if (loading != null) {
+                    auto.pendingPaths.put(pathName, loading);
+                } else {
+                    auto.paths.put(pathName, PathPlannerPath.fromPathFile(pathName));
+                }
+            }
+            auto.loadTimeSeconds = (System.nanoTime() - start) / 1e9;
+            return auto;
+        } catch (IOException | RuntimeException e) {
+            DriverStation.reportWarning(
+                    "Failed to load auto " + name + ": " + e.getMessage(), false);
+            return null;
+        }
+    }
+
+    // Waits for the repository paths the auto uses without holding a loader thread
+    private CompletableFuture<ParsedAuto> resolvePaths(ParsedAuto auto) {
+        if (auto == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return CompletableFuture.allOf(
+                        auto.pendingPaths.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(
+                        loaded -> {
+                            for (Map.Entry<String, CompletableFuture<LoadedPath>> entry :
+                                    auto.pendingPaths.entrySet()) {
+                                LoadedPath path = entry.getValue().join();
+                                if (path == null) {
+                                    DriverStation.reportWarning(
+                                            "Failed to load auto "
+                                                    + auto.name
+                                                    + ": path "
+                                                    + entry.getKey()
+                                                    + " did not load",
+                                            false);
+                                    return null;
+                                }
+                                auto.paths.put(entry.getKey(), path.bluePath);
+                                auto.loadTimeSeconds += path.loadTimeSeconds;
+                            }
+                            auto.pendingPaths.clear();
+                            return auto;
+                        });
+    }
+
+    // Collects the name of every path the tree follows, each once
+    private Step parseStep(JsonNode json, List<String> pathNames) throws IOException {
+        String type = json.path("type").asText();
+        JsonNode data = json.path("data");
+        switch (type) {
+            case "wait":
+                return new Step(StepType.WAIT, data.path("waitTime").asDouble(), null, null);
+            case "named":
+                return new Step(StepType.NAMED, 0.0, data.path("name").asText(), null);
+            case "path":
+                String pathName = data.path("pathName").asText();
+                if (!pathNames.contains(pathName)) {
+                    pathNames.add(pathName);
+                }
+                return new Step(StepType.PATH, 0.0, pathName, null);
+            case "sequential":
+            case "parallel":
+            case "race":
+            case "deadline":
+                List<Step> children = new ArrayList<Step>();
+                for (JsonNode child : data.path("commands")) {
+                    children.add(parseStep(child, pathNames));
+                }
+                return new Step(StepType.valueOf(type.toUpperCase()), 0.0, null, children);
+            default:
+                throw new IOException("Unknown auto command type \"" + type + "\"");
+        }
+    }
+
+    private Command compose(ParsedAuto auto) {
+        Command command = compose(auto, auto.command);
+        if (auto.startingPose != null) {
+            Pose2d startingPose = auto.startingPose;
+            command =
+                    Commands.sequence(
+                            Commands.runOnce(
+                                    () ->
+                                            resetPose.accept(
+                                                    shouldFlip.getAsBoolean()
+                                                            ? GeometryUtil.flipFieldPose(
+                                                                    startingPose)
+                                                            : startingPose)),
+                            command);
+        }
+        return command.withName(auto.name);
+    }
+
+    private Command compose(ParsedAuto auto, Step step) {
+        switch (step.type) {
+            case WAIT:
+                return Commands.waitSeconds(step.waitTime);
+            case NAMED:
+                return NamedCommands.getCommand(step.name);
+            case PATH:
+                return AutoBuilder.followPath(auto.paths.get(step.name));
+            case SEQUENTIAL:
+                return Commands.sequence(composeChildren(auto, step, 0));
+            case PARALLEL:
+                return Commands.parallel(composeChildren(auto, step, 0));
+            case RACE:
+                return Commands.race(composeChildren(auto, step, 0));
+            case DEADLINE:
+                if (step.children.isEmpty()) {
+                    return Commands.none();
+                }
+                return Commands.deadline(
+                        compose(auto, step.children.get(0)), composeChildren(auto, step, 1));
+            default:
+                return Commands.none();
+        }
+    }
+
+    private Command[] composeChildren(ParsedAuto auto, Step step, int first) {
+        Command[] commands = new Command[step.children.size() - first];
+        for (int i = first; i < step.children.size(); i++) {
+            commands[i - first] = compose(auto, step.children.get(i));
+        }
+        return commands;
+    }
+}
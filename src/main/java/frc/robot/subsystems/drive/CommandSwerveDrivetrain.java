@@ -1,18 +1,21 @@
 package frc.robot.subsystems.drive;
 
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.configs.Slot0Configs;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.Pigeon2;
+import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.mechanisms.swerve.SwerveDrivetrain;
+import com.ctre.phoenix6.mechanisms.swerve.SwerveDrivetrain.SwerveDriveState;
 import com.ctre.phoenix6.mechanisms.swerve.SwerveDrivetrainConstants;
 import com.ctre.phoenix6.mechanisms.swerve.SwerveModule.DriveRequestType;
 import com.ctre.phoenix6.mechanisms.swerve.SwerveModuleConstants;
 import com.ctre.phoenix6.mechanisms.swerve.SwerveRequest;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import com.pathplanner.lib.auto.AutoBuilder;
-import com.pathplanner.lib.commands.PathPlannerAuto;
 import com.pathplanner.lib.controllers.PPHolonomicDriveController;
 import com.pathplanner.lib.path.PathConstraints;
-import com.pathplanner.lib.path.PathPlannerPath;
 import com.pathplanner.lib.pathfinding.LocalADStar;
 import com.pathplanner.lib.pathfinding.Pathfinding;
 import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
@@ -23,7 +26,6 @@ import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Transform2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.units.Units;
 import edu.wpi.first.wpilibj.DriverStation;
@@ -36,15 +38,26 @@ import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import frc.robot.Constants;
+import frc.robot.Constants.CANDevices;
 import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.FieldConstants;
-import frc.robot.Constants.ScoringConstants;
 import frc.robot.Constants.TunerConstants;
+import frc.robot.telemetry.OdometrySample;
+import frc.robot.telemetry.OdometrySampleQueue;
+import frc.robot.telemetry.RobotState;
 import frc.robot.utils.AllianceUtil;
-import frc.robot.utils.GeomUtil;
-import frc.robot.utils.InterpolateDouble;
+import frc.robot.utils.CANBudget;
+import frc.robot.utils.CachedTalonFX;
+import frc.robot.utils.ConfigExecutor;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.StartupConfigurator;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import org.littletonrobotics.junction.Logger;
 
 /**
@@ -86,12 +99,7 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
 
     private Pose2d targetTightPose;
 
-    private static InterpolateDouble noteTimeToGoal =
-            new InterpolateDouble(ScoringConstants.timeToGoalMap(), 0.0, 2.0);
-
-    private Supplier<Pose2d> getFieldToRobot = () -> new Pose2d();
-
-    private Supplier<Translation2d> getRobotVelocity = () -> new Translation2d();
+    private RobotState robotState = new RobotState();
 
     private SendableChooser<Command> autoChooser = new SendableChooser<Command>();
 
@@ -125,6 +133,36 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
     private String lastCommandedPath = "";
     private Command pathfindCommand = null;
 
+    private static final PathConstraints pathfindConstraints =
+            new PathConstraints(
+                    3.0,
+                    4.0,
+                    Constants.ConversionConstants.kDegreesToRadians * 540,
+                    Constants.ConversionConstants.kDegreesToRadians * 720);
+    private final PathRepository pathRepository =
+            new PathRepository(pathfindConstraints, DriveConstants.prebuiltPathfindPaths);
+    private final AutoLoader autoLoader =
+            new AutoLoader(pathRepository, this::seedFieldRelative, this::shouldFlipPath);
+
+    // Chooser name and .auto file of each auto, in the order they're listed
+    private static final String[][] autoOptions = {
+            {"Amp Side - 4 note (2 from center)", "S1-W1-C1-C2"},
+            {"Amp Side - 5 note (3 from center)", "S1-W1-C1-C2-C3"},
+            {"Amp Side - 3 note", "S1-W1-W2"},
+            {"Amp Side - 4 note (wing)", "S1-W1-W2-W3"},
+            {"Amp Side - 5 note", "S1-W1-W2-W3-C5"},
+            {"Center - 3 note", "S2-W2-W3"},
+            {"Center - 3 note (2 from center - avoids wing notes)", "S2-C1-C2"},
+            {"Center - 4 note (source side to center)", "S2-W2-W3-C5"},
+            {"Center - 3 note - special", "S2-C1-C2-Special"},
+            {"Center - 5 note - 3 from center", "S2-C1-C2-C3"},
+            {"Source Side - 2 note", "S3-W3"},
+            {"Source Side - 3 note - 2 from center", "S3-C5-C4"},
+            {"Source Side - 4 note - 3 from center", "S3-C5-C4-C3"},
+            {"Source Side - 5 note (across)", "S3-W3-W2-W1-C1"},
+            {"Source Side - 6 note (across)", "S3-W3-W2-W1-C1-C2"},
+    };
+
     private Pose2d pathfindPose = new Pose2d();
 
     private ChassisSpeeds stopSpeeds = new ChassisSpeeds(0, 0, 0);
@@ -133,6 +171,13 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
 
     private boolean demo = false;
 
+    private final OdometrySampleQueue odometrySamples =
+            new OdometrySampleQueue(DriveConstants.odometrySampleQueueCapacity);
+    private final OdometrySample odometrySample = new OdometrySample();
+
+    // Disabled periodic sets the brake mode every loop, and each change is a blocking config call
+    private final CachedTalonFX[] moduleMotors = cacheModuleMotors();
+
     public CommandSwerveDrivetrain(
             SwerveDrivetrainConstants driveTrainConstants,
             double OdometryUpdateFrequency,
@@ -151,6 +196,10 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
          * In short, never trust the Command Scheduler.
          */
         CommandScheduler.getInstance().registerSubsystem(this);
+
+        super.registerTelemetry(this::recordOdometrySample);
+
+        budgetCanBus(OdometryUpdateFrequency);
     }
 
     public CommandSwerveDrivetrain(
@@ -169,6 +218,96 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
          * In short, never trust the Command Scheduler.
          */
         CommandScheduler.getInstance().registerSubsystem(this);
+
+        super.registerTelemetry(this::recordOdometrySample);
+
+        budgetCanBus(DriveConstants.odometryUpdateFrequencyHz);
+    }
+
+    // Keeps the signals the odometry thread reads at its rate, and the CANcoder frames the steer
+    // motors fuse, then turns everything else off. Each module is set up on its own startup thread.
+    private void budgetCanBus(double odometryFrequencyHz) {
+        for (int i = 0; i < 4; i++) {
+            int module = i;
+            StartupConfigurator.configure(
+                    "driveModule" + module, () -> budgetModule(module, odometryFrequencyHz));
+        }
+
+        StartupConfigurator.configure("pigeon", () -> budgetPigeon(odometryFrequencyHz));
+    }
+
+    private boolean budgetPigeon(double odometryFrequencyHz) {
+        Pigeon2 pigeon = getPigeon2();
+        boolean ok =
+                CANBudget.setFrequency(pigeon, odometryFrequencyHz, m_yawGetter, m_angularZGetter);
+        ok &= CANBudget.optimize(pigeon);
+        return ok;
+    }
+
+    private boolean budgetModule(int module, double odometryFrequencyHz) {
+        TalonFX driveMotor = getModule(module).getDriveMotor();
+        TalonFX steerMotor = getModule(module).getSteerMotor();
+        CANcoder canCoder = getModule(module).getCANcoder();
+
+        boolean ok =
+                CANBudget.setFrequency(
+                        driveMotor,
+                        odometryFrequencyHz,
+                        driveMotor.getPosition(),
+                        driveMotor.getVelocity());
+        ok &=
+                CANBudget.setFrequency(
+                        steerMotor,
+                        odometryFrequencyHz,
+                        steerMotor.getPosition(),
+                        steerMotor.getVelocity());
+        ok &=
+                CANBudget.setFrequency(
+                        canCoder,
+                        CANDevices.canCoderSignalFrequencyHz,
+                        canCoder.getPosition(),
+                        canCoder.getVelocity());
+        ok &= CANBudget.optimize(driveMotor, steerMotor, canCoder);
+        return ok;
+    }
+
+    /**
+     * Registers a function to be called with the drive state after every odometry update, on the
+     * odometry thread. Odometry samples keep being queued for the main loop alongside it.
+     */
+    @Override
+    public void registerTelemetry(Consumer<SwerveDriveState> telemFunction) {
+        super.registerTelemetry(
+                state -> {
+                    recordOdometrySample(state);
+                    telemFunction.accept(state);
+                });
+    }
+
+    // Runs on the odometry thread with the state lock held, so m_modulePositions and the yaw
+    // signals are the ones this update used
+    private void recordOdometrySample(SwerveDriveState state) {
+        double yawDegrees =
+                BaseStatusSignal.getLatencyCompensatedValue(m_yawGetter, m_angularZGetter);
+        odometrySamples.offer(
+                Utils.getCurrentTimeSeconds(), state.Pose, yawDegrees, m_modulePositions);
+    }
+
+    /**
+     * Moves every queued odometry sample into the robot state's pose history. Call this once per
+     * cycle, before the robot state is updated.
+     *
+     * @param robotState The robot state to add the samples to
+     */
+    public void drainOdometrySamples(RobotState robotState) {
+        int count = 0;
+        while (odometrySamples.poll(odometrySample)) {
+            robotState.addOdometrySample(odometrySample);
+            count++;
+        }
+
+        Logger.recordOutput("drive/odometrySamples", count);
+        Logger.recordOutput("drive/odometrySamplesDropped", odometrySamples.getDroppedCount());
     }
 
     public void setAlignGains(double kPMax, double kPMin, double kI, double kD) {
@@ -178,8 +317,8 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
         thetaController.setD(kD);
     }
 
-    public void setPoseSupplier(Supplier<Pose2d> getFieldToRobot) {
-        this.getFieldToRobot = getFieldToRobot;
+    public void setRobotState(RobotState robotState) {
+        this.robotState = robotState;
     }
 
     public void setAlignTarget(AlignTarget alignTarget) {
@@ -198,10 +337,6 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
         return alignTarget;
     }
 
-    public void setVelocitySupplier(Supplier<Translation2d> getRobotVelocity) {
-        this.getRobotVelocity = getRobotVelocity;
-    }
-
     public void setDemo(boolean demo) {
         this.demo = demo;
     }
@@ -232,53 +367,59 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
                         TunerConstants.kSpeedAt12VoltsMps,
                         driveBaseRadius,
                         new ReplanningConfig(false, false)),
-                () -> {
-                    // Boolean supplier that controls when the path will be mirrored for the red
-                    // alliance
-                    // This will flip the path being followed to the red side of the field.
-                    // THE ORIGIN WILL REMAIN ON THE BLUE SIDE
-
-                    var alliance = DriverStation.getAlliance();
-                    if (alliance.isPresent()) {
-                        return alliance.get() == DriverStation.Alliance.Red;
-                    }
-                    return false;
-                }, // Change this if the path needs to be flipped on red vs blue
+                this::shouldFlipPath, // Change this if the path needs to be flipped on red vs blue
                 this); // Subsystem for requirements
 
         PPHolonomicDriveController.setRotationTargetOverride(this::getOverrideRotation);
 
         // autoChooser = AutoBuilder.buildAutoChooser();
         autoChooser.setDefaultOption("Default (nothing)", Commands.none()); // S1-W1-W2-W3
-        autoChooser.addOption(
-                "Amp Side - 4 note (2 from center)", new PathPlannerAuto("S1-W1-C1-C2"));
-        autoChooser.addOption(
-                "Amp Side - 5 note (3 from center)", new PathPlannerAuto("S1-W1-C1-C2-C3"));
-        autoChooser.addOption("Amp Side - 3 note", new PathPlannerAuto("S1-W1-W2"));
-        autoChooser.addOption("Amp Side - 4 note (wing)", new PathPlannerAuto("S1-W1-W2-W3"));
-        autoChooser.addOption("Amp Side - 5 note", new PathPlannerAuto("S1-W1-W2-W3-C5"));
-        autoChooser.addOption("Center - 3 note", new PathPlannerAuto("S2-W2-W3"));
-        autoChooser.addOption(
-                "Center - 3 note (2 from center - avoids wing notes)",
-                new PathPlannerAuto("S2-C1-C2"));
-        autoChooser.addOption(
-                "Center - 4 note (source side to center)", new PathPlannerAuto("S2-W2-W3-C5"));
-        autoChooser.addOption("Center - 3 note - special", new PathPlannerAuto("S2-C1-C2-Special"));
-        autoChooser.addOption(
-                "Center - 5 note - 3 from center", new PathPlannerAuto("S2-C1-C2-C3"));
-        autoChooser.addOption("Source Side - 2 note", new PathPlannerAuto("S3-W3"));
-        autoChooser.addOption(
-                "Source Side - 3 note - 2 from center", new PathPlannerAuto("S3-C5-C4"));
-        autoChooser.addOption(
-                "Source Side - 4 note - 3 from center", new PathPlannerAuto("S3-C5-C4-C3"));
-        autoChooser.addOption(
-                "Source Side - 5 note (across)", new PathPlannerAuto("S3-W3-W2-W1-C1"));
-        autoChooser.addOption(
-                "Source Side - 6 note (across)", new PathPlannerAuto("S3-W3-W2-W1-C1-C2"));
+
+        // Paths and autos are read on one pool, each path as its own task
+        ExecutorService loaderPool =
+                Executors.newFixedThreadPool(
+                        DriveConstants.autoLoaderThreads,
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "AutoLoader");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        pathRepository.startLoading(loaderPool);
+
+        List<String> autoNames = new ArrayList<String>();
+        for (String[] option : autoOptions) {
+            autoNames.add(option[1]);
+        }
+        autoLoader.startLoading(autoNames, loaderPool);
+        // Every read is already queued, so this only lets the threads exit once they finish
+        loaderPool.shutdown();
+    }
+
+    // Adds every auto that loaded to the chooser and publishes it
+    private void publishAutoChooser() {
+        for (String[] option : autoOptions) {
+            Command auto = autoLoader.getAuto(option[1]);
+            if (auto != null) {
+                autoChooser.addOption(option[0], auto);
+            }
+        }
         SmartDashboard.putData("Auto Chooser", autoChooser);
     }
 
+    // Flips paths and autos to the red side of the field. THE ORIGIN WILL REMAIN ON THE BLUE SIDE
+    private boolean shouldFlipPath() {
+        var alliance = DriverStation.getAlliance();
+        if (alliance.isPresent()) {
+            return alliance.get() == DriverStation.Alliance.Red;
+        }
+        return false;
+    }
+
     public Command getAutoCommand() {
+        if (!autoLoader.isLoaded()) {
+            DriverStation.reportWarning("Autos are still loading, running no auto", false);
+            return null;
+        }
         return autoChooser.getSelected();
     }
 
@@ -340,7 +481,7 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
     }
 
     private void controlDrivetrain() {
-        Pose2d pose = getFieldToRobot.get();
+        Pose2d pose = robotState.getPose();
         desiredHeading = pose.getRotation();
         if (alignState == AlignState.ALIGNING && !demo) {
             switch (alignTarget) {
@@ -348,10 +489,10 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
                     desiredHeading = AllianceUtil.getAmpHeading();
                     break;
                 case SPEAKER:
+                    // Same solve the shooter uses, so heading and shot always agree
                     desiredHeading =
-                            calculateDesiredHeading(
-                                    pose,
-                                    new Pose2d(AllianceUtil.getFieldToSpeaker(), new Rotation2d()));
+                            Rotation2d.fromRadians(
+                                    robotState.getShotSolution().headingRadians);
                     break;
                 case SOURCE:
                     desiredHeading = AllianceUtil.getSourceHeading();
@@ -359,10 +500,10 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
                     // case SPECIFIC_DIRECTION:
                     //     desiredHeading = Rotation2d.fromRadians(alignDirection);
                 case UP:
-                    if (!DriverStation.getAlliance().isPresent()) {
+                    if (!robotState.getAlliance().isPresent()) {
                         desiredHeading = FieldConstants.blueUpHeading;
                     } else {
-                        switch (DriverStation.getAlliance().get()) {
+                        switch (robotState.getAlliance().get()) {
                             case Blue:
                                 desiredHeading = FieldConstants.blueUpHeading;
                                 break;
@@ -373,10 +514,10 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
                     }
                     break;
                 case DOWN:
-                    if (!DriverStation.getAlliance().isPresent()) {
+                    if (!robotState.getAlliance().isPresent()) {
                         desiredHeading = FieldConstants.blueDownHeading;
                     } else {
-                        switch (DriverStation.getAlliance().get()) {
+                        switch (robotState.getAlliance().get()) {
                             case Blue:
                                 desiredHeading = FieldConstants.blueDownHeading;
                                 break;
@@ -387,10 +528,10 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
                     }
                     break;
                 case LEFT:
-                    if (!DriverStation.getAlliance().isPresent()) {
+                    if (!robotState.getAlliance().isPresent()) {
                         desiredHeading = FieldConstants.blueLeftHeading;
                     } else {
-                        switch (DriverStation.getAlliance().get()) {
+                        switch (robotState.getAlliance().get()) {
                             case Blue:
                                 desiredHeading = FieldConstants.blueLeftHeading;
                                 break;
@@ -401,10 +542,10 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
                     }
                     break;
                 case RIGHT:
-                    if (!DriverStation.getAlliance().isPresent()) {
+                    if (!robotState.getAlliance().isPresent()) {
                         desiredHeading = FieldConstants.blueRightHeading;
                     } else {
-                        switch (DriverStation.getAlliance().get()) {
+                        switch (robotState.getAlliance().get()) {
                             case Blue:
                                 desiredHeading = FieldConstants.blueRightHeading;
                                 break;
@@ -487,42 +628,6 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
         }
     }
 
-    private Rotation2d calculateDesiredHeading(Pose2d current, Pose2d target) {
-        Translation2d robotVelocityAdjusted =
-                getRobotVelocity.get().times(DriveConstants.anticipationTime);
-
-        if (robotVelocityAdjusted.getNorm() < DriveConstants.minimumAnticipationVelocity) {
-            robotVelocityAdjusted = new Translation2d(0, 0);
-        }
-
-        double robotXAnticipated = current.getX() + robotVelocityAdjusted.getX();
-        double robotYAnticipated = current.getY() + robotVelocityAdjusted.getY();
-
-        Pose2d robotAnticipated =
-                new Pose2d(robotXAnticipated, robotYAnticipated, current.getRotation());
-
-        Pose2d robotToTargetAnticipated = GeomUtil.transformToPose(robotAnticipated.minus(target));
-
-        double distanceToTarget =
-                Math.hypot(
-                        robotToTargetAnticipated.getTranslation().getX(),
-                        robotToTargetAnticipated.getTranslation().getY());
-
-        Rotation2d angle =
-                Rotation2d.fromRadians(
-                        Math.atan2(
-                                robotToTargetAnticipated.getY(), robotToTargetAnticipated.getX()));
-        angle = angle.plus(Rotation2d.fromDegrees(180));
-
-        double timeToGoal = noteTimeToGoal.getValue(distanceToTarget);
-        double noteVelocity = distanceToTarget / timeToGoal;
-
-        // Correction angle accounting for robot velocity
-        double phi = (Math.PI / 2) - Math.acos(getRobotVelocity.get().getY() / noteVelocity);
-
-        return angle.minus(new Rotation2d(phi));
-    }
-
     // private Optional<Rotation2d> getRotationTargetOverride() {
     //     return Optional.of(
     //             calculateDesiredHeading(
@@ -533,21 +638,15 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
     private Command getPathfindCommand(Pose2d targetPose) {
         pathfindPose = targetPose;
 
-        PathConstraints constraints =
-                new PathConstraints(
-                        3.0,
-                        4.0,
-                        Constants.ConversionConstants.kDegreesToRadians * 540,
-                        Constants.ConversionConstants.kDegreesToRadians * 720);
-
-        return AutoBuilder.pathfindToPose(targetPose, constraints, 0.0, 0.0);
+        return AutoBuilder.pathfindToPose(targetPose, pathfindConstraints, 0.0, 0.0);
     }
 
     public boolean atPathfindPose() {
-        Transform2d translationError = getFieldToRobot.get().minus(pathfindPose);
+        Pose2d pose = robotState.getPose();
+        Transform2d translationError = pose.minus(pathfindPose);
         double rotationError =
                 Math.abs(
-                        getFieldToRobot.get().getRotation().getRadians()
+                        pose.getRotation().getRadians()
                                 - pathfindPose.getRotation().getRadians());
 
         return translationError.getTranslation().getNorm()
@@ -563,22 +662,18 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
     }
 
     public void driveToPath(String pathName) {
-        if (pathName == lastCommandedPath || demo) {
+        if (pathName.equals(lastCommandedPath) || demo) {
             return;
-        } else {
-            lastCommandedPath = pathName;
         }
 
-        PathPlannerPath path = PathPlannerPath.fromPathFile(pathName);
-
-        PathConstraints constraints =
-                new PathConstraints(
-                        3.0,
-                        4.0,
-                        Constants.ConversionConstants.kDegreesToRadians * 540,
-                        Constants.ConversionConstants.kDegreesToRadians * 720);
+        Optional<Command> command = pathRepository.getPathfindCommand(pathName);
+        if (command.isEmpty()) {
+            DriverStation.reportWarning("Path " + pathName + " is not loaded", false);
+            return;
+        }
+        lastCommandedPath = pathName;
 
-        pathfindCommand = AutoBuilder.pathfindThenFollowPath(path, constraints, 0.0);
+        pathfindCommand = command.get();
         pathfindCommand.schedule();
     }
 
@@ -626,27 +721,26 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
             farClimbPose2d = new Pose2d(11.22, 4.08, Rotation2d.fromDegrees(0));
         }
 
+        Pose2d pose = robotState.getPose();
         double distanceToTargetLeft =
                 Math.hypot(
-                        getFieldToRobot.get().getX() - leftClimbPose2d.getX(),
-                        getFieldToRobot.get().getY() - leftClimbPose2d.getY());
+                        pose.getX() - leftClimbPose2d.getX(), pose.getY() - leftClimbPose2d.getY());
         double distanceToTargetRight =
                 Math.hypot(
-                        getFieldToRobot.get().getX() - rightClimbPose2d.getX(),
-                        getFieldToRobot.get().getY() - rightClimbPose2d.getY());
+                        pose.getX() - rightClimbPose2d.getX(),
+                        pose.getY() - rightClimbPose2d.getY());
         double distanceToTargetFar =
                 Math.hypot(
-                        getFieldToRobot.get().getX() - farClimbPose2d.getX(),
-                        getFieldToRobot.get().getY() - farClimbPose2d.getY());
+                        pose.getX() - farClimbPose2d.getX(), pose.getY() - farClimbPose2d.getY());
 
         if (distanceToTargetLeft < distanceToTargetRight
                 && distanceToTargetLeft < distanceToTargetFar) {
-            driveToPath("leftEndgame");
+            driveToPath("LeftEndgame");
         } else if (distanceToTargetRight < distanceToTargetLeft
                 && distanceToTargetRight < distanceToTargetFar) {
-            driveToPath("rightEndgame");
+            driveToPath("RightEndgame");
         } else {
-            driveToPath("farEndgame");
+            driveToPath("FarEndgame");
         }
     }
 
@@ -667,96 +761,58 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
         };
     }
 
-    public void setDrivePID(double kP, double kI, double kD) {
-        for (int i = 0; i < 4; i++) {
-            getModule(i)
-                    .getDriveMotor()
-                    .getConfigurator()
-                    .refresh(
-                            new Slot0Configs()
-                                    .withKP(kP)
-                                    .withKI(kI)
-                                    .withKD(kD)
-                                    .withKS(TunerConstants.driveGains.kS)
-                                    .withKV(TunerConstants.driveGains.kV)
-                                    .withKA(TunerConstants.driveGains.kA));
-        }
+    public CompletableFuture<Boolean> setDrivePID(double kP, double kI, double kD) {
+        return applyDriveGains(kP, kI, kD);
     }
 
-    public void setDriveP(double kP) {
-        for (int i = 0; i < 4; i++) {
-            getModule(i)
-                    .getDriveMotor()
-                    .getConfigurator()
-                    .apply(
-                            new Slot0Configs()
-                                    .withKP(kP)
-                                    .withKI(TunerConstants.driveGains.kI)
-                                    .withKD(TunerConstants.driveGains.kD)
-                                    .withKS(TunerConstants.driveGains.kS)
-                                    .withKV(TunerConstants.driveGains.kV)
-                                    .withKA(TunerConstants.driveGains.kA));
-        }
+    public CompletableFuture<Boolean> setDriveP(double kP) {
+        return applyDriveGains(kP, TunerConstants.driveGains.kI, TunerConstants.driveGains.kD);
+    }
+
+    public CompletableFuture<Boolean> setDriveI(double kI) {
+        return applyDriveGains(TunerConstants.driveGains.kP, kI, TunerConstants.driveGains.kD);
     }
 
-    public void setDriveI(double kI) {
+    public CompletableFuture<Boolean> setDriveD(double kD) {
+        return applyDriveGains(TunerConstants.driveGains.kP, TunerConstants.driveGains.kI, kD);
+    }
+
+    // Applied on the config thread, since each apply blocks until the module answers
+    private CompletableFuture<Boolean> applyDriveGains(double kP, double kI, double kD) {
+        Slot0Configs gains =
+                new Slot0Configs()
+                        .withKP(kP)
+                        .withKI(kI)
+                        .withKD(kD)
+                        .withKS(TunerConstants.driveGains.kS)
+                        .withKV(TunerConstants.driveGains.kV)
+                        .withKA(TunerConstants.driveGains.kA);
+        CompletableFuture<Boolean> applied = CompletableFuture.completedFuture(true);
         for (int i = 0; i < 4; i++) {
-            getModule(i)
-                    .getDriveMotor()
-                    .getConfigurator()
-                    .apply(
-                            new Slot0Configs()
-                                    .withKP(TunerConstants.driveGains.kP)
-                                    .withKI(kI)
-                                    .withKD(TunerConstants.driveGains.kD)
-                                    .withKS(TunerConstants.driveGains.kS)
-                                    .withKV(TunerConstants.driveGains.kV)
-                                    .withKA(TunerConstants.driveGains.kA));
+            TalonFX driveMotor = getModule(i).getDriveMotor();
+            CompletableFuture<Boolean> module =
+                    ConfigExecutor.submit(
+                            "drive module " + i + " gains",
+                            () -> driveMotor.getConfigurator().apply(gains).isOK());
+            applied = applied.thenCombine(module, (allOk, moduleOk) -> allOk && moduleOk);
         }
+        return applied;
     }
 
-    public void setDriveD(double kD) {
+    // Each motor tracks its own neutral mode, so one that failed or reset is resent on its own
+    private CachedTalonFX[] cacheModuleMotors() {
+        CachedTalonFX[] motors = new CachedTalonFX[8];
         for (int i = 0; i < 4; i++) {
-            getModule(i)
-                    .getDriveMotor()
-                    .getConfigurator()
-                    .apply(
-                            new Slot0Configs()
-                                    .withKP(TunerConstants.driveGains.kP)
-                                    .withKI(TunerConstants.driveGains.kI)
-                                    .withKD(kD)
-                                    .withKS(TunerConstants.driveGains.kS)
-                                    .withKV(TunerConstants.driveGains.kV)
-                                    .withKA(TunerConstants.driveGains.kA));
+            motors[2 * i] = new CachedTalonFX(this.getModule(i).getDriveMotor());
+            motors[2 * i + 1] = new CachedTalonFX(this.getModule(i).getSteerMotor());
         }
+        return motors;
     }
 
     public void setBrakeMode(boolean brake) {
-        this.getModule(0)
-                .getDriveMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        this.getModule(1)
-                .getDriveMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        this.getModule(2)
-                .getDriveMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        this.getModule(3)
-                .getDriveMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-
-        this.getModule(0)
-                .getSteerMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        this.getModule(1)
-                .getSteerMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        this.getModule(2)
-                .getSteerMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        this.getModule(3)
-                .getSteerMotor()
-                .setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
+        for (CachedTalonFX motor : moduleMotors) {
+            motor.setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
+        }
     }
 
     public void autoInit() {
@@ -791,6 +847,15 @@ public class CommandSwerveDrivetrain extends SwerveDrivetrain implements Subsyst
 
     @Override
     public void periodic() {
+        LoopProfiler.start("CommandSwerveDrivetrain.periodic");
+
+        pathRepository.update();
+        if (autoLoader.update()) {
+            publishAutoChooser();
+        }
+
         controlDrivetrain();
+
+        LoopProfiler.stop("CommandSwerveDrivetrain.periodic");
     }
 }
@@ -0,0 +1,205 @@
+package frc.robot.subsystems.drive;
+
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj2.command.Command;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Every PathPlanner path in the deploy directory, parsed once in the background at startup and
+ * kept in memory as both the blue original and the red flipped copy, so driving to a path during a
+ * match never reads a file or parses JSON. Each path is read as its own task on the loader pool, so
+ * paths are read in parallel and an auto only has to wait for the paths it uses.
+ *
+ * <p>Pathfind-then-follow commands are built on the main thread. The paths the robot is known to
+ * drive to are built as soon as loading finishes, and any other path the first time it's asked
+ * for, so no single cycle builds a command for every path.
+ */
+public class PathRepository {
+    // One path file, read on a loader thread
+    static class LoadedPath {
+        final PathPlannerPath bluePath;
+        final PathPlannerPath redPath;
+        final double loadTimeSeconds;
+
+        LoadedPath(PathPlannerPath bluePath, PathPlannerPath redPath, double loadTimeSeconds) {
+            this.bluePath = bluePath;
+            this.redPath = redPath;
+            this.loadTimeSeconds = loadTimeSeconds;
+        }
+    }
+
+    // Both maps are filled before being published together, and never changed after
+    private static class LoadedPaths {
+        final HashMap<String, PathPlannerPath> bluePaths = new HashMap<String, PathPlannerPath>();
+        final HashMap<String, PathPlannerPath> redPaths = new HashMap<String, PathPlannerPath>();
+        double loadTimeSeconds = 0.0;
+    }
+
+    private final PathConstraints pathfindConstraints;
+    private final String[] prebuiltPaths;
+
+    // Filled by startLoading before anything else can read it, and never changed after
+    private final HashMap<String, CompletableFuture<LoadedPath>> pathFutures =
+            new HashMap<String, CompletableFuture<LoadedPath>>();
+    private volatile LoadedPaths loadedPaths = null;
+
+    // Only touched from the main thread
+    private final HashMap<String, Command> pathfindCommands = new HashMap<String, Command>();
+    private boolean commandsBuilt = false;
+
+    /**
+     * @param pathfindConstraints The constraints used to pathfind to the start of each path
+     * @param prebuiltPaths The paths whose pathfind commands are built as soon as they load
+     */
+    public PathRepository(PathConstraints pathfindConstraints, String[] prebuiltPaths) {
+        this.pathfindConstraints = pathfindConstraints;
+        this.prebuiltPaths = prebuiltPaths;
+    }
+
+    /**
+     * Starts reading every path in the background, one task per file. AutoBuilder must already be
+     * configured. Call this once, from the main thread, before anything asks for a path.
+     *
+     * @param executor The pool to read the paths on
+     */
+    public void startLoading(ExecutorService executor) {
+        long start = System.nanoTime();
+
+        File[] files = new File(Filesystem.getDeployDirectory(), "pathplanner/paths").listFiles();
+        if (files == null) {
+            DriverStation.reportWarning("No PathPlanner paths directory found", false);
+            files = new File[0];
+        }
+
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!fileName.endsWith(".path")) {
+                continue;
+            }
+            String name = fileName.substring(0, fileName.length() - ".path".length());
+            pathFutures.put(name, CompletableFuture.supplyAsync(() -> readPath(name), executor));
+        }
+
+        CompletableFuture.allOf(pathFutures.values().toArray(new CompletableFuture<?>[0]))
+                .whenComplete((read, error) -> loadedPaths = collectPaths(start));
+    }
+
+    // Runs on a loader thread, returning null if the path couldn't be read
+    private static LoadedPath readPath(String name) {
+        long start = System.nanoTime();
+        try {
+            PathPlannerPath path = PathPlannerPath.fromPathFile(name);
+            return new LoadedPath(path, path.flipPath(), (System.nanoTime() - start) / 1e9);
+        } catch (RuntimeException e) {
+            DriverStation.reportWarning(
+                    "Failed to load path " + name + ": " + e.getMessage(), false);
+            return null;
+        }
+    }
+
+    private LoadedPaths collectPaths(long start) {
+        LoadedPaths paths = new LoadedPaths();
+        for (Map.Entry<String, CompletableFuture<LoadedPath>> entry : pathFutures.entrySet()) {
+            LoadedPath path = entry.getValue().join();
+            if (path != null) {
+                paths.bluePaths.put(entry.getKey(), path.bluePath);
+                paths.redPaths.put(entry.getKey(), path.redPath);
+            }
+        }
+        paths.loadTimeSeconds = (System.nanoTime() - start) / 1e9;
+        return paths;
+    }
+
+    /**
+     * Returns a future that completes as soon as one path has been read, so work that needs it can
+     * be chained on it instead of waiting for every path or reading it again. Safe to call from
+     * any thread once loading has started.
+     *
+     * @param name The name of the path file, without the extension
+     * @return The future, which completes with null if the path failed to load, or null if there
+     *     is no such path file
+     */
+    CompletableFuture<LoadedPath> getPathFuture(String name) {
+        return pathFutures.get(name);
+    }
+
+    /**
+     * Builds the prebuilt pathfind commands once the paths have loaded. Call this every cycle from
+     * the main thread; it does nothing before loading finishes or after the commands are built.
+     */
+    public void update() {
+        LoadedPaths paths = loadedPaths;
+        if (commandsBuilt || paths == null) {
+            return;
+        }
+
+        for (String name : prebuiltPaths) {
+            if (buildPathfindCommand(paths, name) == null) {
+                DriverStation.reportWarning("Prebuilt path " + name + " did not load", false);
+            }
+        }
+        commandsBuilt = true;
+
+        Logger.recordOutput("pathRepository/pathCount", paths.bluePaths.size());
+        Logger.recordOutput("pathRepository/loadTimeSeconds", paths.loadTimeSeconds);
+    }
+
+    public boolean isLoaded() {
+        return commandsBuilt;
+    }
+
+    /**
+     * Returns the command that pathfinds to the start of a path and then follows it, building it
+     * if this is the first time it's asked for. Call this from the main thread.
+     *
+     * @param name The name of the path file, without the extension
+     * @return The command, or empty if the path isn't loaded (yet)
+     */
+    public Optional<Command> getPathfindCommand(String name) {
+        Command command = pathfindCommands.get(name);
+        if (command == null) {
+            LoadedPaths paths = loadedPaths;
+            if (paths != null) {
+                command = buildPathfindCommand(paths, name);
+            }
+        }
+        return Optional.ofNullable(command);
+    }
+
+    // The commands flip the path themselves on red, so they're built from the blue originals
+    private Command buildPathfindCommand(LoadedPaths paths, String name) {
+        PathPlannerPath path = paths.bluePaths.get(name);
+        if (path == null) {
+            return null;
+        }
+
+        Command command = AutoBuilder.pathfindThenFollowPath(path, pathfindConstraints, 0.0);
+        pathfindCommands.put(name, command);
+        return command;
+    }
+
+    /**
+     * Returns a loaded path. Safe to call from any thread.
+     *
+     * @param name The name of the path file, without the extension
+     * @param flipped Whether to return the copy flipped to the red side of the field
+     * @return The path, or empty if the path isn't loaded (yet)
+     */
+    public Optional<PathPlannerPath> getPath(String name, boolean flipped) {
+        LoadedPaths paths = loadedPaths;
+        if (paths == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(flipped ? paths.redPaths.get(name) : paths.bluePaths.get(name));
+    }
+}
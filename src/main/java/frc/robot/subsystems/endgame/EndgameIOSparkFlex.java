@@ -5,12 +5,16 @@ import com.revrobotics.CANSparkBase.IdleMode;
 import com.revrobotics.CANSparkFlex;
 import com.revrobotics.CANSparkLowLevel.MotorType;
 import com.revrobotics.REVLibError;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkPIDController;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.trajectory.TrapezoidProfile.State;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants.EndgameConstants;
+import frc.robot.utils.CachedSparkFlex;
+import frc.robot.utils.StartupConfigurator;
 import org.littletonrobotics.junction.Logger;
 
 public class EndgameIOSparkFlex implements EndgameIO {
@@ -19,6 +23,9 @@ public class EndgameIOSparkFlex implements EndgameIO {
     private final CANSparkFlex rightEndgameMotor =
             new CANSparkFlex(EndgameConstants.rightMotorID, MotorType.kBrushless);
 
+    private final CachedSparkFlex cachedLeftEndgameMotor = new CachedSparkFlex(leftEndgameMotor);
+    private final CachedSparkFlex cachedRightEndgameMotor = new CachedSparkFlex(rightEndgameMotor);
+
     private TrapezoidProfile profile =
             new TrapezoidProfile(EndgameConstants.climberProfileConstraints);
 
@@ -34,29 +41,47 @@ public class EndgameIOSparkFlex implements EndgameIO {
     double initialVelocity = 0.0;
 
     public EndgameIOSparkFlex() {
-        leftEndgameMotor.setSmartCurrentLimit(EndgameConstants.smartCurrentLimit);
-        rightEndgameMotor.setSmartCurrentLimit(EndgameConstants.smartCurrentLimit);
+        StartupConfigurator.configure("endgameLeft", this::configureLeftMotor);
+        StartupConfigurator.configure("endgameRight", this::configureRightMotor);
+    }
 
-        rightEndgameMotor.setIdleMode(IdleMode.kBrake);
-        leftEndgameMotor.setIdleMode(IdleMode.kBrake);
+    // Run on a startup thread, and again if any call fails
+    private boolean configureLeftMotor() {
+        boolean ok =
+                leftEndgameMotor.setSmartCurrentLimit(EndgameConstants.smartCurrentLimit)
+                        == REVLibError.kOk;
+        ok &= leftEndgameMotor.setIdleMode(IdleMode.kBrake) == REVLibError.kOk;
+        ok &= leftEndgameMotor.follow(rightEndgameMotor, true) == REVLibError.kOk;
+
+        RelativeEncoder encoder = leftEndgameMotor.getEncoder();
+        ok &=
+                encoder.setPositionConversionFactor(EndgameConstants.encoderToMeters)
+                        == REVLibError.kOk;
+        ok &= encoder.setPosition(0.0) == REVLibError.kOk;
+        return ok;
+    }
 
+    private boolean configureRightMotor() {
+        boolean ok =
+                rightEndgameMotor.setSmartCurrentLimit(EndgameConstants.smartCurrentLimit)
+                        == REVLibError.kOk;
+        ok &= rightEndgameMotor.setIdleMode(IdleMode.kBrake) == REVLibError.kOk;
         rightEndgameMotor.setInverted(false);
-        leftEndgameMotor.follow(rightEndgameMotor, true);
-
-        leftEndgameMotor.getEncoder().setPositionConversionFactor(EndgameConstants.encoderToMeters);
-        leftEndgameMotor.getEncoder().setPosition(0.0);
 
-        rightEndgameMotor
-                .getEncoder()
-                .setPositionConversionFactor(EndgameConstants.encoderToMeters);
-        rightEndgameMotor.getEncoder().setPosition(0.0);
+        RelativeEncoder encoder = rightEndgameMotor.getEncoder();
+        ok &=
+                encoder.setPositionConversionFactor(EndgameConstants.encoderToMeters)
+                        == REVLibError.kOk;
+        ok &= encoder.setPosition(0.0) == REVLibError.kOk;
 
-        rightEndgameMotor.getPIDController().setP(EndgameConstants.climberkP);
-        rightEndgameMotor.getPIDController().setI(EndgameConstants.climberkI);
-        rightEndgameMotor.getPIDController().setD(EndgameConstants.climberkD);
-        rightEndgameMotor.getPIDController().setFF(EndgameConstants.climberkFFClimber);
+        SparkPIDController controller = rightEndgameMotor.getPIDController();
+        ok &= controller.setP(EndgameConstants.climberkP) == REVLibError.kOk;
+        ok &= controller.setI(EndgameConstants.climberkI) == REVLibError.kOk;
+        ok &= controller.setD(EndgameConstants.climberkD) == REVLibError.kOk;
+        ok &= controller.setFF(EndgameConstants.climberkFFClimber) == REVLibError.kOk;
 
-        rightEndgameMotor.getPIDController().setFeedbackDevice(rightEndgameMotor.getEncoder());
+        ok &= controller.setFeedbackDevice(rightEndgameMotor.getEncoder()) == REVLibError.kOk;
+        return ok;
     }
 
     @Override
@@ -71,12 +96,8 @@ public class EndgameIOSparkFlex implements EndgameIO {
 
     @Override
     public void setClimbing(boolean climbing) {
-        rightEndgameMotor
-                .getPIDController()
-                .setFF(
-                        climbing
-                                ? EndgameConstants.climberkFFRobot
-                                : EndgameConstants.climberkFFClimber);
+        cachedRightEndgameMotor.setFF(
+                climbing ? EndgameConstants.climberkFFRobot : EndgameConstants.climberkFFClimber);
     }
 
     @Override
@@ -102,8 +123,8 @@ public class EndgameIOSparkFlex implements EndgameIO {
     @Override
     public void setBrakeMode(boolean brake) {
         IdleMode sparkMode = brake ? IdleMode.kBrake : IdleMode.kCoast;
-        leftEndgameMotor.setIdleMode(sparkMode);
-        rightEndgameMotor.setIdleMode(sparkMode);
+        cachedLeftEndgameMotor.setIdleMode(sparkMode);
+        cachedRightEndgameMotor.setIdleMode(sparkMode);
     }
 
     public void setPositionTuning(double position) {
@@ -122,7 +143,7 @@ public class EndgameIOSparkFlex implements EndgameIO {
         REVLibError err;
         if (override) {
             SmartDashboard.putNumber("endgame/overrideVolts", overrideVolts);
-            rightEndgameMotor.setVoltage(overrideVolts);
+            cachedRightEndgameMotor.setVoltage(overrideVolts);
 
             err = REVLibError.kOk;
         } else {
@@ -145,10 +166,7 @@ public class EndgameIOSparkFlex implements EndgameIO {
 
             profileSetpoint = clampedPosition;
 
-            err =
-                    rightEndgameMotor
-                            .getPIDController()
-                            .setReference(clampedPosition, ControlType.kPosition);
+            err = cachedRightEndgameMotor.setReference(clampedPosition, ControlType.kPosition);
         }
 
         Logger.recordOutput("endgame/overrideMode", override);
@@ -180,7 +198,7 @@ public class EndgameIOSparkFlex implements EndgameIO {
 
     @Override
     public void setFF(double ff) {
-        rightEndgameMotor.getPIDController().setFF(ff);
+        cachedRightEndgameMotor.setFF(ff);
     }
 
     @Override
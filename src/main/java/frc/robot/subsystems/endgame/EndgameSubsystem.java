@@ -4,6 +4,7 @@ import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.EndgameConstants;
+import frc.robot.utils.LoopProfiler;
 import frc.robot.utils.Tunable;
 import org.littletonrobotics.junction.Logger;
 
@@ -119,6 +120,8 @@ public class EndgameSubsystem extends SubsystemBase implements Tunable {
 
     @Override
     public void periodic() {
+        LoopProfiler.start("EndgameSubsystem.periodic");
+
         endgameIo.updateInputs(endgameInputs);
         Logger.processInputs("endgame", endgameInputs);
 
@@ -163,6 +166,8 @@ public class EndgameSubsystem extends SubsystemBase implements Tunable {
         Logger.recordOutput(
                 "endgame/Elevator3d",
                 new Pose3d(0.0, 0.0, endgameInputs.position + 0.1, new Rotation3d(0, 0, 0)));
+
+        LoopProfiler.stop("EndgameSubsystem.periodic");
     }
 
     @Override
@@ -1,14 +1,19 @@
 package frc.robot.subsystems.intake;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
 import com.ctre.phoenix6.configs.MotorOutputConfigs;
 import com.ctre.phoenix6.configs.TalonFXConfigurator;
-import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import edu.wpi.first.wpilibj.DigitalInput;
+import frc.robot.Constants.CANDevices;
 import frc.robot.Constants.IntakeConstants;
 import frc.robot.Constants.SensorConstants;
+import frc.robot.utils.CANBudget;
+import frc.robot.utils.CachedTalonFX;
+import frc.robot.utils.StartupConfigurator;
+import frc.robot.utils.StatusSignalRegistry;
 
 public class IntakeIOFalcon implements IntakeIO {
 
@@ -16,47 +21,103 @@ public class IntakeIOFalcon implements IntakeIO {
 
     private TalonFX belt = new TalonFX(IntakeConstants.indexTwoMotorID);
 
+    private final CachedTalonFX cachedLeftIntake = new CachedTalonFX(leftIntake);
+    private final CachedTalonFX cachedBelt = new CachedTalonFX(belt);
+
+    private final StatusSignal<Double> leftIntakeVoltage = leftIntake.getMotorVoltage();
+    private final StatusSignal<Double> leftIntakeStatorCurrent = leftIntake.getStatorCurrent();
+
+    private final StatusSignal<Double> beltVoltage = belt.getMotorVoltage();
+    private final StatusSignal<Double> beltStatorCurrent = belt.getStatorCurrent();
+    private final StatusSignal<Double> beltSupplyCurrent = belt.getSupplyCurrent();
+
     DigitalInput bannerSensor = new DigitalInput(SensorConstants.uptakeSensorPort);
 
     public IntakeIOFalcon() {
-        leftIntake.setInverted(true);
+        StartupConfigurator.configure("leftIntake", this::configureLeftIntake);
+        StartupConfigurator.configure("belt", this::configureBelt);
 
-        belt.setInverted(true);
+        StatusSignalRegistry.register(
+                leftIntakeVoltage,
+                leftIntakeStatorCurrent,
+                beltVoltage,
+                beltStatorCurrent,
+                beltSupplyCurrent);
+    }
+
+    // Run on a startup thread, and again if any call fails
+    private boolean configureLeftIntake() {
+        leftIntake.setInverted(true);
 
         TalonFXConfigurator leftConfig = leftIntake.getConfigurator();
-        leftConfig.apply(new MotorOutputConfigs().withNeutralMode(NeutralModeValue.Coast));
-        leftConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(120)
-                        .withStatorCurrentLimitEnable(true));
+        boolean ok =
+                leftConfig
+                        .apply(new MotorOutputConfigs().withNeutralMode(NeutralModeValue.Coast))
+                        .isOK();
+        ok &=
+                leftConfig
+                        .apply(
+                                new CurrentLimitsConfigs()
+                                        .withStatorCurrentLimit(120)
+                                        .withStatorCurrentLimitEnable(true))
+                        .isOK();
+
+        ok &=
+                CANBudget.setFrequency(
+                        leftIntake,
+                        CANDevices.mechanismSignalFrequencyHz,
+                        leftIntakeVoltage,
+                        leftIntakeStatorCurrent);
+        ok &= CANBudget.optimize(leftIntake);
+        return ok;
+    }
+
+    private boolean configureBelt() {
+        belt.setInverted(true);
 
         TalonFXConfigurator beltConfig = belt.getConfigurator();
-        beltConfig.apply(new MotorOutputConfigs().withNeutralMode(NeutralModeValue.Brake));
-        beltConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(60)
-                        .withStatorCurrentLimitEnable(true));
+        boolean ok =
+                beltConfig
+                        .apply(new MotorOutputConfigs().withNeutralMode(NeutralModeValue.Brake))
+                        .isOK();
+        ok &=
+                beltConfig
+                        .apply(
+                                new CurrentLimitsConfigs()
+                                        .withStatorCurrentLimit(60)
+                                        .withStatorCurrentLimitEnable(true))
+                        .isOK();
+
+        ok &=
+                CANBudget.setFrequency(
+                        belt,
+                        CANDevices.mechanismSignalFrequencyHz,
+                        beltVoltage,
+                        beltStatorCurrent,
+                        beltSupplyCurrent);
+        ok &= CANBudget.optimize(belt);
+        return ok;
     }
 
     @Override
     public void updateInputs(IntakeIOInputs inputs) {
-        inputs.leftIntakeVoltage = leftIntake.getMotorVoltage().getValueAsDouble();
-        inputs.leftIntakeStatorCurrent = leftIntake.getStatorCurrent().getValueAsDouble();
+        inputs.leftIntakeVoltage = leftIntakeVoltage.getValueAsDouble();
+        inputs.leftIntakeStatorCurrent = leftIntakeStatorCurrent.getValueAsDouble();
 
-        inputs.beltVoltage = belt.getMotorVoltage().getValueAsDouble();
-        inputs.beltStatorCurrent = belt.getStatorCurrent().getValueAsDouble();
-        inputs.beltSupplyCurrent = belt.getSupplyCurrent().getValueAsDouble();
+        inputs.beltVoltage = beltVoltage.getValueAsDouble();
+        inputs.beltStatorCurrent = beltStatorCurrent.getValueAsDouble();
+        inputs.beltSupplyCurrent = beltSupplyCurrent.getValueAsDouble();
 
         inputs.noteSensed = !bannerSensor.get();
     }
 
     @Override
     public void setIntakeVoltage(double volts) {
-        leftIntake.setControl(new VoltageOut(volts));
+        cachedLeftIntake.setVoltage(volts);
     }
 
     @Override
     public void setBeltVoltage(double volts) {
-        belt.setControl(new VoltageOut(volts));
+        cachedBelt.setVoltage(volts);
     }
 }
@@ -2,6 +2,7 @@ package frc.robot.subsystems.intake;
 
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.IntakeConstants;
+import frc.robot.utils.LoopProfiler;
 import java.util.function.BooleanSupplier;
 import org.littletonrobotics.junction.Logger;
 
@@ -25,6 +26,8 @@ public class IntakeSubsystem extends SubsystemBase {
 
     @Override
     public void periodic() {
+        LoopProfiler.start("IntakeSubsystem.periodic");
+
         io.updateInputs(inputs);
         Logger.processInputs("intake", inputs);
 
@@ -48,6 +51,8 @@ public class IntakeSubsystem extends SubsystemBase {
         Logger.recordOutput("intake/scorerWantsNote", scorerWantsNote.getAsBoolean());
 
         Logger.recordOutput("intake/state", state.toString());
+
+        LoopProfiler.stop("IntakeSubsystem.periodic");
     }
 
     public void setScoringSupplier(BooleanSupplier scorerWantsNote) {
@@ -5,6 +5,7 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.utils.LoopProfiler;
 import java.util.function.Consumer;
 
 public class VisionLocalizer extends SubsystemBase {
@@ -20,12 +21,16 @@ public class VisionLocalizer extends SubsystemBase {
 
     @Override
     public void periodic() {
+        LoopProfiler.start("VisionLocalizer.periodic");
+
         container.update();
         for (Camera camera : container.getCameras()) {
             if (camera.hasNewMeasurement()) {
                 cameraConsumer.accept(camera.getLatestMeasurement());
             }
         }
+
+        LoopProfiler.stop("VisionLocalizer.periodic");
     }
 
     public void setCameraConsumer(Consumer<CameraMeasurement> cameraConsumer) {
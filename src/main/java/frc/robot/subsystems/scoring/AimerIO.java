@@ -1,5 +1,6 @@
 package frc.robot.subsystems.scoring;
 
+import java.util.concurrent.CompletableFuture;
 import org.littletonrobotics.junction.AutoLog;
 
 public interface AimerIO {
@@ -28,17 +29,24 @@ public interface AimerIO {
 
     public default void setOverrideVolts(double volts) {}
 
-    public default void setPID(double p, double i, double d) {}
+    // Gains may be applied in the background, the future completes with whether they were
+    public default CompletableFuture<Boolean> setPID(double p, double i, double d) {
+        return CompletableFuture.completedFuture(true);
+    }
 
     public default void resetPID() {}
 
     public default void setMaxProfile(double maxVelocity, double maxAcceleration) {}
 
-    public default void setFF(double kS, double kV, double kA, double kG) {}
+    public default CompletableFuture<Boolean> setFF(double kS, double kV, double kA, double kG) {
+        return CompletableFuture.completedFuture(true);
+    }
 
     public default void setBrakeMode(boolean brake) {}
 
-    public default void setStatorCurrentLimit(double limit) {}
+    public default CompletableFuture<Boolean> setStatorCurrentLimit(double limit) {
+        return CompletableFuture.completedFuture(true);
+    }
 
     public default void setMotorDisabled(boolean disabled) {}
 }
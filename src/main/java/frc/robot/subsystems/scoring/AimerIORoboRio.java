@@ -1,8 +1,8 @@
 package frc.robot.subsystems.scoring;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
-import com.ctre.phoenix6.configs.TalonFXConfigurator;
 import com.ctre.phoenix6.controls.Follower;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.NeutralModeValue;
@@ -13,13 +13,26 @@ import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.trajectory.TrapezoidProfile.State;
 import edu.wpi.first.wpilibj.DutyCycleEncoder;
 import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.CANDevices;
 import frc.robot.Constants.ScoringConstants;
+import frc.robot.utils.CANBudget;
+import frc.robot.utils.CachedTalonFX;
+import frc.robot.utils.ConfigExecutor;
+import frc.robot.utils.StartupConfigurator;
+import frc.robot.utils.StatusSignalRegistry;
+import java.util.concurrent.CompletableFuture;
 import org.littletonrobotics.junction.Logger;
 
 public class AimerIORoboRio implements AimerIO {
     private final TalonFX aimerLeft = new TalonFX(ScoringConstants.aimLeftMotorId);
     private final TalonFX aimerRight = new TalonFX(ScoringConstants.aimRightMotorId);
 
+    private final CachedTalonFX cachedAimerLeft = new CachedTalonFX(aimerLeft);
+    private final CachedTalonFX cachedAimerRight = new CachedTalonFX(aimerRight);
+
+    private final StatusSignal<Double> statorCurrent = aimerRight.getStatorCurrent();
+    private final StatusSignal<Double> supplyCurrent = aimerRight.getSupplyCurrent();
+
     private final PIDController controller =
             new PIDController(
                     ScoringConstants.aimerkP, ScoringConstants.aimerkI, ScoringConstants.aimerkD);
@@ -62,28 +75,52 @@ public class AimerIORoboRio implements AimerIO {
     boolean motorDisabled = false;
 
     public AimerIORoboRio() {
-        aimerLeft.setControl(new Follower(ScoringConstants.aimRightMotorId, true));
-
-        aimerLeft.setNeutralMode(NeutralModeValue.Brake);
-        aimerRight.setNeutralMode(NeutralModeValue.Brake);
+        StartupConfigurator.configure("aimerLeft", this::configureAimerLeft);
+        StartupConfigurator.configure("aimerRight", this::configureAimerRight);
 
-        aimerRight.setInverted(false);
+        controller.setTolerance(0.015);
 
-        TalonFXConfigurator aimerLeftConfig = aimerLeft.getConfigurator();
-        aimerLeftConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(60)
-                        .withStatorCurrentLimitEnable(true));
+        StatusSignalRegistry.register(statorCurrent, supplyCurrent);
+    }
 
-        TalonFXConfigurator aimerRightConfig = aimerRight.getConfigurator();
-        aimerRightConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(60)
-                        .withStatorCurrentLimitEnable(true));
+    // Run on a startup thread, and again if any call fails
+    private boolean configureAimerLeft() {
+        boolean ok =
+                aimerLeft.setControl(new Follower(ScoringConstants.aimRightMotorId, true)).isOK();
+        ok &= aimerLeft.setNeutralMode(NeutralModeValue.Brake).isOK();
+        ok &= aimerLeft.getConfigurator().apply(currentLimits(60)).isOK();
+        ok &= CANBudget.optimize(aimerLeft);
+        return ok;
+    }
 
-        aimerRight.setPosition(0.0);
+    private boolean configureAimerRight() {
+        boolean ok = aimerRight.setNeutralMode(NeutralModeValue.Brake).isOK();
+        aimerRight.setInverted(false);
+        ok &= aimerRight.getConfigurator().apply(currentLimits(60)).isOK();
+        ok &= aimerRight.setPosition(0.0).isOK();
+
+        ok &=
+                CANBudget.setFrequency(
+                        aimerRight,
+                        CANDevices.mechanismSignalFrequencyHz,
+                        statorCurrent,
+                        supplyCurrent);
+        // aimerLeft follows the output aimerRight reports
+        ok &=
+                CANBudget.setFrequency(
+                        aimerRight,
+                        CANDevices.followerSignalFrequencyHz,
+                        aimerRight.getDutyCycle(),
+                        aimerRight.getMotorVoltage(),
+                        aimerRight.getTorqueCurrent());
+        ok &= CANBudget.optimize(aimerRight);
+        return ok;
+    }
 
-        controller.setTolerance(0.015);
+    private static CurrentLimitsConfigs currentLimits(double statorLimit) {
+        return new CurrentLimitsConfigs()
+                .withStatorCurrentLimit(statorLimit)
+                .withStatorCurrentLimitEnable(true);
     }
 
     public void resetPID() {
@@ -139,10 +176,11 @@ public class AimerIORoboRio implements AimerIO {
     }
 
     @Override
-    public void setPID(double p, double i, double d) {
+    public CompletableFuture<Boolean> setPID(double p, double i, double d) {
         controller.setP(p);
         controller.setI(i);
         controller.setD(d);
+        return CompletableFuture.completedFuture(true);
     }
 
     @Override
@@ -153,14 +191,15 @@ public class AimerIORoboRio implements AimerIO {
     }
 
     @Override
-    public void setFF(double kS, double kV, double kA, double kG) {
+    public CompletableFuture<Boolean> setFF(double kS, double kV, double kA, double kG) {
         feedforward = new ArmFeedforward(kS, kG, kV, kA);
+        return CompletableFuture.completedFuture(true);
     }
 
     @Override
     public void setBrakeMode(boolean brake) {
-        aimerLeft.setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
-        aimerRight.setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
+        cachedAimerLeft.setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
+        cachedAimerRight.setNeutralMode(brake ? NeutralModeValue.Brake : NeutralModeValue.Coast);
     }
 
     private double getEncoderPosition() {
@@ -168,18 +207,19 @@ public class AimerIORoboRio implements AimerIO {
         return encoder.getAbsolutePosition() * 2.0 * Math.PI - ScoringConstants.aimerEncoderOffset;
     }
 
-    public void setStatorCurrentLimit(double limit) {
-        TalonFXConfigurator aimerLeftConfig = aimerLeft.getConfigurator();
-        aimerLeftConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(limit)
-                        .withStatorCurrentLimitEnable(true));
-
-        TalonFXConfigurator aimerRightConfig = aimerRight.getConfigurator();
-        aimerRightConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(limit)
-                        .withStatorCurrentLimitEnable(true));
+    @Override
+    public CompletableFuture<Boolean> setStatorCurrentLimit(double limit) {
+        // Changed mid-match by the endgame sequence, so the blocking applies run off the loop
+        CurrentLimitsConfigs limits = currentLimits(limit);
+        CompletableFuture<Boolean> left =
+                ConfigExecutor.submit(
+                        "aimer left current limit",
+                        () -> aimerLeft.getConfigurator().apply(limits).isOK());
+        CompletableFuture<Boolean> right =
+                ConfigExecutor.submit(
+                        "aimer right current limit",
+                        () -> aimerRight.getConfigurator().apply(limits).isOK());
+        return left.thenCombine(right, (leftOk, rightOk) -> leftOk && rightOk);
     }
 
     @Override
@@ -215,9 +255,9 @@ public class AimerIORoboRio implements AimerIO {
 
         appliedVolts = MathUtil.clamp(appliedVolts, -12.0, 12.0);
         if (!motorDisabled || override) {
-            aimerRight.setVoltage(appliedVolts);
+            cachedAimerRight.setVoltage(appliedVolts);
         } else {
-            aimerRight.setVoltage(0.0);
+            cachedAimerRight.setVoltage(0.0);
         }
 
         Logger.recordOutput("Scoring/motorDisabled", motorDisabled);
@@ -239,7 +279,7 @@ public class AimerIORoboRio implements AimerIO {
         lastError = getEncoderPosition() - controlSetpoint;
 
         inputs.aimAppliedVolts = appliedVolts;
-        inputs.aimStatorCurrentAmps = aimerRight.getStatorCurrent().getValueAsDouble();
-        inputs.aimSupplyCurrentAmps = aimerRight.getSupplyCurrent().getValueAsDouble();
+        inputs.aimStatorCurrentAmps = statorCurrent.getValueAsDouble();
+        inputs.aimSupplyCurrentAmps = supplyCurrent.getValueAsDouble();
     }
 }
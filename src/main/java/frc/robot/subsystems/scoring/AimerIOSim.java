@@ -10,6 +10,7 @@ import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
 import frc.robot.Constants;
 import frc.robot.Constants.ScoringConstants;
+import java.util.concurrent.CompletableFuture;
 
 public class AimerIOSim implements AimerIO {
     private final SingleJointedArmSim sim =
@@ -95,10 +96,11 @@ public class AimerIOSim implements AimerIO {
     }
 
     @Override
-    public void setPID(double p, double i, double d) {
+    public CompletableFuture<Boolean> setPID(double p, double i, double d) {
         controller.setP(p);
         controller.setI(i);
         controller.setD(d);
+        return CompletableFuture.completedFuture(true);
     }
 
     @Override
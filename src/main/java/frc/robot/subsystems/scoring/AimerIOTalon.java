@@ -1,5 +1,6 @@
 package frc.robot.subsystems.scoring;
 
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
 import com.ctre.phoenix6.configs.MotionMagicConfigs;
@@ -11,14 +12,28 @@ import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.wpilibj.DutyCycleEncoder;
+import frc.robot.Constants.CANDevices;
 import frc.robot.Constants.ScoringConstants;
+import frc.robot.utils.CANBudget;
+import frc.robot.utils.CachedTalonFX;
+import frc.robot.utils.ConfigExecutor;
+import frc.robot.utils.StatusSignalRegistry;
+import java.util.concurrent.CompletableFuture;
 
 public class AimerIOTalon implements AimerIO {
     private final TalonFX aimerLeft = new TalonFX(ScoringConstants.aimLeftMotorId);
     private final TalonFX aimerRight = new TalonFX(ScoringConstants.aimRightMotorId);
 
+    private final CachedTalonFX cachedAimerLeft = new CachedTalonFX(aimerLeft);
+    private final CachedTalonFX cachedAimerRight = new CachedTalonFX(aimerRight);
+
+    private final StatusSignal<Double> appliedVolts = aimerLeft.getMotorVoltage();
+    private final StatusSignal<Double> statorCurrent = aimerLeft.getStatorCurrent();
+    private final StatusSignal<Double> supplyCurrent = aimerLeft.getSupplyCurrent();
+
     private final MotionMagicVoltage controller = new MotionMagicVoltage(0).withSlot(0);
     private final MotionMagicConfigs configs = new MotionMagicConfigs();
+    // Only changed on the config thread once constructed
     private final Slot0Configs slot0 = new Slot0Configs();
 
     private final DutyCycleEncoder encoder = new DutyCycleEncoder(ScoringConstants.aimEncoderPort);
@@ -75,6 +90,23 @@ public class AimerIOTalon implements AimerIO {
 
         encoder.setDistancePerRotation(2 * Math.PI);
         encoder.setPositionOffset(ScoringConstants.aimerEncoderOffset);
+
+        CANBudget.setFrequency(
+                aimerLeft,
+                CANDevices.mechanismSignalFrequencyHz,
+                appliedVolts,
+                statorCurrent,
+                supplyCurrent);
+        // aimerRight follows the output aimerLeft reports
+        CANBudget.setFrequency(
+                aimerLeft,
+                CANDevices.followerSignalFrequencyHz,
+                aimerLeft.getDutyCycle(),
+                aimerLeft.getMotorVoltage(),
+                aimerLeft.getTorqueCurrent());
+        CANBudget.optimize(aimerLeft, aimerRight);
+
+        StatusSignalRegistry.register(appliedVolts, statorCurrent, supplyCurrent);
     }
 
     @Override
@@ -99,39 +131,51 @@ public class AimerIOTalon implements AimerIO {
     }
 
     @Override
-    public void setPID(double p, double i, double d) {
-        slot0.withKP(p);
-        slot0.withKI(i);
-        slot0.withKD(d);
-
-        aimerLeft.getConfigurator().apply(slot0);
-        aimerRight.getConfigurator().apply(slot0);
+    public CompletableFuture<Boolean> setPID(double p, double i, double d) {
+        return ConfigExecutor.submit(
+                "aimer gains",
+                () -> {
+                    slot0.withKP(p);
+                    slot0.withKI(i);
+                    slot0.withKD(d);
+
+                    return applyGains();
+                });
     }
 
     @Override
     public void setBrakeMode(boolean brake) {
         NeutralModeValue talonMode = brake ? NeutralModeValue.Brake : NeutralModeValue.Coast;
-        aimerLeft.setNeutralMode(talonMode);
-        aimerRight.setNeutralMode(talonMode);
+        cachedAimerLeft.setNeutralMode(talonMode);
+        cachedAimerRight.setNeutralMode(talonMode);
     }
 
     @Override
-    public void setFF(double kS, double kV, double kA, double kG) {
-        slot0.withKS(kS);
-        slot0.withKV(kV);
-        slot0.withKA(kA);
-        slot0.withKG(kG);
+    public CompletableFuture<Boolean> setFF(double kS, double kV, double kA, double kG) {
+        return ConfigExecutor.submit(
+                "aimer feedforward",
+                () -> {
+                    slot0.withKS(kS);
+                    slot0.withKV(kV);
+                    slot0.withKA(kA);
+                    slot0.withKG(kG);
+
+                    return applyGains();
+                });
+    }
 
-        aimerLeft.getConfigurator().apply(slot0);
-        aimerRight.getConfigurator().apply(slot0);
+    private boolean applyGains() {
+        boolean leftOk = aimerLeft.getConfigurator().apply(slot0).isOK();
+        boolean rightOk = aimerRight.getConfigurator().apply(slot0).isOK();
+        return leftOk && rightOk;
     }
 
     @Override
     public void updateInputs(AimerIOInputs inputs) {
         if (override) {
-            aimerLeft.setVoltage(overrideVolts);
+            cachedAimerLeft.setVoltage(overrideVolts);
         } else {
-            aimerLeft.setControl(controller.withPosition(goalAngleRad));
+            cachedAimerLeft.setControl(controller.withPosition(goalAngleRad));
         }
 
         inputs.aimGoalAngleRad = goalAngleRad;
@@ -146,8 +190,8 @@ public class AimerIOTalon implements AimerIO {
         lastPosition = encoder.getAbsolutePosition();
         inputs.aimVelocityRadPerSec = 0.0;
 
-        inputs.aimAppliedVolts = aimerLeft.getMotorVoltage().getValueAsDouble();
-        inputs.aimStatorCurrentAmps = aimerLeft.getStatorCurrent().getValueAsDouble();
-        inputs.aimSupplyCurrentAmps = aimerLeft.getSupplyCurrent().getValueAsDouble();
+        inputs.aimAppliedVolts = appliedVolts.getValueAsDouble();
+        inputs.aimStatorCurrentAmps = statorCurrent.getValueAsDouble();
+        inputs.aimSupplyCurrentAmps = supplyCurrent.getValueAsDouble();
     }
 }
@@ -1,15 +1,20 @@
 package frc.robot.subsystems.scoring;
 
 import com.revrobotics.CANSparkFlex;
+import com.revrobotics.REVLibError;
+import com.revrobotics.RelativeEncoder;
 import edu.wpi.first.math.controller.ArmFeedforward;
 import edu.wpi.first.math.trajectory.TrapezoidProfile;
 import edu.wpi.first.math.trajectory.TrapezoidProfile.State;
 import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Constants.ScoringConstants;
+import frc.robot.utils.CachedSparkFlex;
+import frc.robot.utils.StartupConfigurator;
 
 public class HoodIOSparkFlex implements HoodIO {
     private final CANSparkFlex hoodMotor =
             new CANSparkFlex(ScoringConstants.hoodId, CANSparkFlex.MotorType.kBrushless);
+    private final CachedSparkFlex cachedHoodMotor = new CachedSparkFlex(hoodMotor);
 
     private final ArmFeedforward feedforward =
             new ArmFeedforward(
@@ -36,21 +41,32 @@ public class HoodIOSparkFlex implements HoodIO {
     private Timer homeTimer = new Timer();
 
     public HoodIOSparkFlex() {
+        StartupConfigurator.configure("hood", this::configureHood);
+    }
+
+    // Run on a startup thread, and again if any call fails
+    private boolean configureHood() {
         // hoodMotor.setSmartCurrentLimit(150);
 
-        hoodMotor.getPIDController().setP(ScoringConstants.hoodkP);
-        hoodMotor.getPIDController().setI(ScoringConstants.hoodkI);
-        hoodMotor.getPIDController().setD(ScoringConstants.hoodkD);
+        boolean ok = hoodMotor.getPIDController().setP(ScoringConstants.hoodkP) == REVLibError.kOk;
+        ok &= hoodMotor.getPIDController().setI(ScoringConstants.hoodkI) == REVLibError.kOk;
+        ok &= hoodMotor.getPIDController().setD(ScoringConstants.hoodkD) == REVLibError.kOk;
 
         hoodMotor.setInverted(true);
 
-        hoodMotor.getEncoder().setPosition(0.0);
-        hoodMotor.getEncoder().setPositionConversionFactor(ScoringConstants.hoodEncoderToRad);
-        hoodMotor.getEncoder().setVelocityConversionFactor(ScoringConstants.hoodEncoderToRad);
+        RelativeEncoder encoder = hoodMotor.getEncoder();
+        ok &= encoder.setPosition(0.0) == REVLibError.kOk;
+        ok &=
+                encoder.setPositionConversionFactor(ScoringConstants.hoodEncoderToRad)
+                        == REVLibError.kOk;
+        ok &=
+                encoder.setVelocityConversionFactor(ScoringConstants.hoodEncoderToRad)
+                        == REVLibError.kOk;
 
-        hoodMotor.setIdleMode(CANSparkFlex.IdleMode.kBrake);
+        ok &= hoodMotor.setIdleMode(CANSparkFlex.IdleMode.kBrake) == REVLibError.kOk;
 
-        hoodMotor.setSmartCurrentLimit(140);
+        ok &= hoodMotor.setSmartCurrentLimit(140) == REVLibError.kOk;
+        return ok;
     }
 
     @Override
@@ -96,7 +112,8 @@ public class HoodIOSparkFlex implements HoodIO {
 
     @Override
     public void setBrakeMode(boolean brake) {
-        hoodMotor.setIdleMode(brake ? CANSparkFlex.IdleMode.kBrake : CANSparkFlex.IdleMode.kCoast);
+        cachedHoodMotor.setIdleMode(
+                brake ? CANSparkFlex.IdleMode.kBrake : CANSparkFlex.IdleMode.kCoast);
     }
 
     @Override
@@ -130,7 +147,7 @@ public class HoodIOSparkFlex implements HoodIO {
         // if (hoodMotor.getOutputCurrent() > 70) {
         //     hoodMotor.setVoltage(0.0);
         // } else {
-        hoodMotor.setVoltage(overrideVolts);
+        cachedHoodMotor.setVoltage(overrideVolts);
         // }
 
         inputs.hoodAngleRad = hoodMotor.getEncoder().getPosition();
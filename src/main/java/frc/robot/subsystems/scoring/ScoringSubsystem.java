@@ -1,12 +1,8 @@
 package frc.robot.subsystems.scoring;
 
-import edu.wpi.first.math.VecBuilder;
-import edu.wpi.first.math.Vector;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation3d;
-import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Timer;
@@ -18,14 +14,18 @@ import edu.wpi.first.wpilibj.util.Color8Bit;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
+import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.Mode;
 import frc.robot.Constants.ScoringConstants;
-import frc.robot.utils.AllianceUtil;
+import frc.robot.telemetry.RobotState;
 import frc.robot.utils.FieldFinder;
 import frc.robot.utils.FieldFinder.FieldLocations;
 import frc.robot.utils.InterpolateDouble;
+import frc.robot.utils.LoopProfiler;
+import frc.robot.utils.ShotTable.Shot;
 import frc.robot.utils.Tunable;
 import frc.robot.utils.notesimulator.NoteManager;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
 import org.littletonrobotics.junction.Logger;
@@ -45,21 +45,20 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
     private final Timer sourceIntakeTimer = new Timer();
     private boolean sourceTimerStarted = false;
 
-    private Supplier<Pose2d> poseSupplier = () -> new Pose2d();
-    private Supplier<Vector<N2>> velocitySupplier = () -> VecBuilder.fill(0.0, 0.0);
+    private RobotState robotState = new RobotState();
     private DoubleSupplier elevatorPositionSupplier = () -> 0.0;
     private Supplier<Boolean> driveAllignedSupplier = () -> true;
 
-    private final InterpolateDouble shooterInterpolated;
-    private final InterpolateDouble aimerInterpolated;
     private final InterpolateDouble timeToPutAimDown;
     private final InterpolateDouble aimerAvoidElevator;
-    private final InterpolateDouble aimerAngleTolerance;
 
     private double shooterGoalVelocityRPMTuning = 0.0;
     private double aimerGoalAngleRadTuning = 0.0;
     private double kickerVoltsTuning = 0.0;
 
+    // Gains sent from tuning are applied on the config thread, logged here once they land
+    private CompletableFuture<Boolean> tuningGainsApplied = null;
+
     private boolean overrideIntake = false;
     private boolean overrideShoot = false;
     private boolean overrideStageAvoidance = false;
@@ -118,19 +117,14 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         this.aimerIo = aimerIo;
         this.hoodIo = hoodIo;
 
-        shooterInterpolated = new InterpolateDouble(ScoringConstants.getShooterMap());
-
-        aimerInterpolated =
-                new InterpolateDouble(
-                        ScoringConstants.getAimerMap(), 0.0, ScoringConstants.aimMaxAngleRadians);
-
         timeToPutAimDown = new InterpolateDouble(ScoringConstants.timeToPutAimDownMap(), 0.0, 2.0);
 
         aimerAvoidElevator =
                 new InterpolateDouble(
                         ScoringConstants.aimerAvoidElevatorTable(), 0.0, Math.PI / 2.0);
 
-        aimerAngleTolerance = new InterpolateDouble(ScoringConstants.aimerToleranceTable());
+        Logger.recordOutput(
+                "scoring/shotTableMaxErrors", RobotState.getShotTable().getMaxResamplingErrors());
 
         if (Constants.currentMode == Mode.SIM) {
             mechanism = new Mechanism2d(2.2, 2.0);
@@ -243,13 +237,14 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
     private void prime() {
         double shooterRPM;
         double aimAngle;
-        double distanceToGoal = findDistanceToGoal();
+        // Solved once per cycle in RobotState, so this matches the heading the drivetrain aims at
+        Shot shot = robotState.getShotSolution().shot;
         if (demo) {
             shooterRPM = ScoringConstants.demoShooterRPM;
             aimAngle = ScoringConstants.demoAimAngle;
         } else {
-            shooterRPM = shooterInterpolated.getValue(distanceToGoal);
-            aimAngle = getAimerAngle(distanceToGoal);
+            shooterRPM = shot.shooterRPM;
+            aimAngle = shot.aimAngleRad + getAimerOffset();
         }
         Logger.recordOutput("scoring/aimGoal", aimAngle);
         shooterIo.setShooterVelocityRPM(shooterRPM);
@@ -281,28 +276,27 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
                                             - ScoringConstants.shooterLowerVelocityMarginRPM);
             aimReady =
                     Math.abs(aimerInputs.aimAngleRad - aimerInputs.aimGoalAngleRad)
-                                    < aimerAngleTolerance.getValue(distanceToGoal)
+                                    < shot.aimToleranceRad
                             && Math.abs(aimerInputs.aimVelocityErrorRadPerSec)
                                     < ScoringConstants.aimAngleVelocityMargin;
         }
         boolean driveReady = demo || driveAllignedSupplier.get();
         boolean fieldLocationReady = true;
-        if (!DriverStation.getAlliance().isPresent()) {
+        if (!robotState.getAlliance().isPresent()) {
             fieldLocationReady = true;
         } else if (!demo) {
-            switch (DriverStation.getAlliance().get()) {
+            FieldLocations location = robotState.getFieldLocation();
+            switch (robotState.getAlliance().get()) {
                 case Blue:
                     fieldLocationReady =
-                            FieldFinder.whereAmI(poseSupplier.get()) == FieldLocations.BLUE_WING
-                                    || (FieldFinder.whereAmI(poseSupplier.get())
-                                                    == FieldLocations.MIDDLE
+                            location == FieldLocations.BLUE_WING
+                                    || (location == FieldLocations.MIDDLE
                                             && DriverStation.isTeleop());
                     break;
                 case Red:
                     fieldLocationReady =
-                            FieldFinder.whereAmI(poseSupplier.get()) == FieldLocations.RED_WING
-                                    || (FieldFinder.whereAmI(poseSupplier.get())
-                                                    == FieldLocations.MIDDLE
+                            location == FieldLocations.RED_WING
+                                    || (location == FieldLocations.MIDDLE
                                             && DriverStation.isTeleop());
                     break;
             }
@@ -350,9 +344,9 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         double shootRPM;
         double aimAngleRad;
         if (!demo) {
-            double distancetoGoal = findDistanceToGoal();
-            shootRPM = shooterInterpolated.getValue(distancetoGoal);
-            aimAngleRad = aimerInterpolated.getValue(distancetoGoal);
+            Shot shot = robotState.getShotSolution().shot;
+            shootRPM = shot.shooterRPM;
+            aimAngleRad = shot.aimAngleRad;
         } else {
             shootRPM = ScoringConstants.demoShooterRPM;
             aimAngleRad = ScoringConstants.demoAimAngle;
@@ -438,13 +432,7 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
     }
 
     public double findDistanceToGoal() {
-        Translation2d speakerPose = AllianceUtil.getFieldToSpeaker();
-        Pose2d robotPose = poseSupplier.get();
-        double distancetoGoal =
-                Math.sqrt(
-                        Math.pow(Math.abs(robotPose.getX() - speakerPose.getX()), 2)
-                                + Math.pow(Math.abs(robotPose.getY() - speakerPose.getY()), 2));
-        return distancetoGoal;
+        return robotState.getDistanceToSpeaker();
     }
 
     public boolean hasNote() {
@@ -463,12 +451,8 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         hoodIo.home();
     }
 
-    public void setPoseSupplier(Supplier<Pose2d> poseSupplier) {
-        this.poseSupplier = poseSupplier;
-    }
-
-    public void setVelocitySupplier(Supplier<Vector<N2>> velocitySupplier) {
-        this.velocitySupplier = velocitySupplier;
+    public void setRobotState(RobotState robotState) {
+        this.robotState = robotState;
     }
 
     public void setElevatorPositionSupplier(DoubleSupplier elevatorPositionSupplier) {
@@ -480,22 +464,17 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
     }
 
     private boolean willHitStage() {
-        return (FieldFinder.willIHitThis(
-                        poseSupplier.get().getX(),
-                        poseSupplier.get().getY(),
-                        velocitySupplier.get().get(0, 0)
-                                * timeToPutAimDown.getValue(aimerInputs.aimAngleRad),
-                        velocitySupplier.get().get(1, 0)
-                                * timeToPutAimDown.getValue(aimerInputs.aimAngleRad),
-                        FieldLocations.BLUE_STAGE)
-                || FieldFinder.willIHitThis(
-                        poseSupplier.get().getX(),
-                        poseSupplier.get().getY(),
-                        velocitySupplier.get().get(0, 0)
-                                * timeToPutAimDown.getValue(aimerInputs.aimAngleRad),
-                        velocitySupplier.get().get(1, 0)
-                                * timeToPutAimDown.getValue(aimerInputs.aimAngleRad),
-                        FieldLocations.RED_STAGE));
+        Pose2d pose = robotState.getPose();
+        double timeToStow = timeToPutAimDown.getValue(aimerInputs.aimAngleRad);
+
+        return FieldFinder.willIHitStage(
+                pose.getX(),
+                pose.getY(),
+                pose.getRotation().getRadians(),
+                robotState.getVelocityX() * timeToStow,
+                robotState.getVelocityY() * timeToStow,
+                DriveConstants.bumperLengthMeters / 2.0,
+                DriveConstants.bumperWidthMeters / 2.0);
     }
 
     public void enabledInit() {
@@ -508,6 +487,8 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
 
     @Override
     public void periodic() {
+        LoopProfiler.start("ScoringSubsystem.periodic");
+
         if (!SmartDashboard.containsKey("Aimer Offset")) {
             SmartDashboard.putNumber("Aimer Offset", ScoringConstants.aimerStaticOffset);
         }
@@ -518,6 +499,8 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
 
         overrideBeamBreak = SmartDashboard.getBoolean("Beam Break Overridden", overrideBeamBreak);
 
+        boolean willHitStage = willHitStage();
+
         if (state == ScoringState.TEMPORARY_SETPOINT) {
             aimerIo.setAngleClampsRad(
                     ScoringConstants.aimMinAngleRadians, ScoringConstants.aimMaxAngleRadians);
@@ -526,7 +509,7 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
                 && state != ScoringState.IDLE
                 // && Math.abs(elevatorPositionSupplier.getAsDouble()) < 0.2
                 && !overrideStageAvoidance
-                && willHitStage()) {
+                && willHitStage) {
             aimerIo.setAngleClampsRad(ScoringConstants.aimMinAngleRadians, 0);
         } else {
             double elevatorLimit =
@@ -564,9 +547,22 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         Logger.recordOutput("scoring/overrideShoot", overrideShoot);
         Logger.recordOutput("scoring/overrideStageAvoidance", overrideStageAvoidance);
 
-        Logger.recordOutput("aimer/willIHitStage", willHitStage());
+        Logger.recordOutput("aimer/willIHitStage", willHitStage);
+
+        if (tuningGainsApplied != null && tuningGainsApplied.isDone()) {
+            boolean applied = tuningGainsApplied.join();
+            Logger.recordOutput("scoring/tuningGainsApplied", applied);
+            if (!applied) {
+                DriverStation.reportWarning("Tuned scoring gains were not applied", false);
+            }
+            tuningGainsApplied = null;
+        }
 
         Logger.recordOutput("scoring/distance", findDistanceToGoal());
+        Logger.recordOutput(
+                "scoring/virtualTargetDistance", robotState.getShotSolution().shot.distanceMeters);
+        Logger.recordOutput(
+                "scoring/virtualTargetConverged", robotState.getShotSolution().converged);
 
         if (Constants.currentMode == Mode.SIM) {
             aimMechanism.setAngle(Units.radiansToDegrees(aimerInputs.aimAngleRad));
@@ -626,6 +622,8 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         Logger.processInputs("scoring/shooter", shooterInputs);
         Logger.processInputs("scoring/aimer", aimerInputs);
         Logger.processInputs("scoring/hood", hoodInputs);
+
+        LoopProfiler.stop("ScoringSubsystem.periodic");
     }
 
     public void setTuningKickerVolts(double kickerVoltsTuning) {
@@ -660,9 +658,8 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         this.hoodForced = hoodForced;
     }
 
-    public double getAimerAngle(double distance) {
-        return aimerInterpolated.getValue(distance)
-                + SmartDashboard.getNumber("Aimer Offset", ScoringConstants.aimerStaticOffset);
+    private double getAimerOffset() {
+        return SmartDashboard.getNumber("Aimer Offset", ScoringConstants.aimerStaticOffset);
     }
 
     @Override
@@ -741,7 +738,7 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         switch (slot) {
                 // Aimer
             case 0:
-                aimerIo.setPID(p, i, d);
+                tuningGainsApplied = aimerIo.setPID(p, i, d);
                 break;
                 // Hood
             case 1:
@@ -749,7 +746,7 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
                 break;
                 // Shooter
             case 2:
-                shooterIo.setPID(p, i, d);
+                tuningGainsApplied = shooterIo.setPID(p, i, d);
                 break;
             default:
                 throw new IllegalArgumentException("Invalid slot");
@@ -773,11 +770,11 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         switch (slot) {
                 // Aimer
             case 0:
-                aimerIo.setFF(kS, kV, kA, kG);
+                tuningGainsApplied = aimerIo.setFF(kS, kV, kA, kG);
                 break;
                 // Shooter
             case 2:
-                shooterIo.setFF(kS, kV, kA);
+                tuningGainsApplied = shooterIo.setFF(kS, kV, kA);
                 break;
             default:
                 throw new IllegalArgumentException("Invalid slot");
@@ -826,7 +823,13 @@ public class ScoringSubsystem extends SubsystemBase implements Tunable {
         hoodIo.setBrakeMode(brake);
     }
 
-    public void setAimerStatorCurrentLimit(double limit) {
-        aimerIo.setStatorCurrentLimit(limit);
+    /**
+     * This method is used to change the aimer's stator current limit in the background
+     *
+     * @param limit The new limit, in amps
+     * @return A future that completes with whether both aimer motors accepted it
+     */
+    public CompletableFuture<Boolean> setAimerStatorCurrentLimit(double limit) {
+        return aimerIo.setStatorCurrentLimit(limit);
     }
 }
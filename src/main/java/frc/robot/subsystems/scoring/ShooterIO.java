@@ -1,5 +1,6 @@
 package frc.robot.subsystems.scoring;
 
+import java.util.concurrent.CompletableFuture;
 import org.littletonrobotics.junction.AutoLog;
 
 public interface ShooterIO {
@@ -33,11 +34,16 @@ public interface ShooterIO {
 
     public default void setOverrideVolts(double volts) {}
 
-    public default void setPID(double p, double i, double d) {}
+    // Gains may be applied in the background, the future completes with whether they were
+    public default CompletableFuture<Boolean> setPID(double p, double i, double d) {
+        return CompletableFuture.completedFuture(true);
+    }
 
     public default void setMaxAcceleration(double maxAcceleration) {}
 
     public default void setMaxJerk(double maxJerk) {}
 
-    public default void setFF(double kS, double kV, double kA) {}
+    public default CompletableFuture<Boolean> setFF(double kS, double kV, double kA) {
+        return CompletableFuture.completedFuture(true);
+    }
 }
@@ -8,6 +8,7 @@ import edu.wpi.first.wpilibj.simulation.FlywheelSim;
 import frc.robot.Constants;
 import frc.robot.Constants.ConversionConstants;
 import frc.robot.Constants.ScoringConstants;
+import java.util.concurrent.CompletableFuture;
 
 public class ShooterIOSim implements ShooterIO {
     // TODO: Tune this later
@@ -68,9 +69,10 @@ public class ShooterIOSim implements ShooterIO {
     }
 
     @Override
-    public void setPID(double p, double i, double d) {
+    public CompletableFuture<Boolean> setPID(double p, double i, double d) {
         shooterLeftController.setPID(p, i, d);
         shooterRightController.setPID(p, i, d);
+        return CompletableFuture.completedFuture(true);
     }
 
     @Override
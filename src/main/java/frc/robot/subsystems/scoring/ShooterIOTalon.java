@@ -1,15 +1,23 @@
 package frc.robot.subsystems.scoring;
 
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.CurrentLimitsConfigs;
 import com.ctre.phoenix6.configs.Slot0Configs;
-import com.ctre.phoenix6.configs.TalonFXConfigurator;
 import com.ctre.phoenix6.controls.VelocityDutyCycle;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 import edu.wpi.first.wpilibj.DigitalInput;
+import frc.robot.Constants.CANDevices;
 import frc.robot.Constants.ConversionConstants;
 import frc.robot.Constants.ScoringConstants;
 import frc.robot.Constants.SensorConstants;
+import frc.robot.utils.CANBudget;
+import frc.robot.utils.CachedTalonFX;
+import frc.robot.utils.ConfigExecutor;
+import frc.robot.utils.StartupConfigurator;
+import frc.robot.utils.StatusSignalRegistry;
+import java.util.concurrent.CompletableFuture;
 
 public class ShooterIOTalon implements ShooterIO {
     private final TalonFX kicker = new TalonFX(ScoringConstants.kickerMotorId);
@@ -17,7 +25,28 @@ public class ShooterIOTalon implements ShooterIO {
     private final TalonFX shooterLeft = new TalonFX(ScoringConstants.shooterLeftMotorId);
     private final TalonFX shooterRight = new TalonFX(ScoringConstants.shooterRightMotorId);
 
-    private final Slot0Configs slot0 = new Slot0Configs();
+    private final CachedTalonFX cachedKicker = new CachedTalonFX(kicker);
+    private final CachedTalonFX cachedShooterLeft = new CachedTalonFX(shooterLeft);
+    private final CachedTalonFX cachedShooterRight = new CachedTalonFX(shooterRight);
+
+    private final VelocityDutyCycle leftVelocityRequest = new VelocityDutyCycle(0.0);
+    private final VelocityDutyCycle rightVelocityRequest = new VelocityDutyCycle(0.0);
+
+    private final StatusSignal<Double> leftVelocity = shooterLeft.getVelocity();
+    private final StatusSignal<Double> leftAppliedVolts = shooterLeft.getMotorVoltage();
+    private final StatusSignal<Double> leftStatorCurrent = shooterLeft.getStatorCurrent();
+    private final StatusSignal<Double> leftSupplyCurrent = shooterLeft.getSupplyCurrent();
+
+    private final StatusSignal<Double> rightVelocity = shooterRight.getVelocity();
+    private final StatusSignal<Double> rightAppliedVolts = shooterRight.getMotorVoltage();
+    private final StatusSignal<Double> rightStatorCurrent = shooterRight.getStatorCurrent();
+    private final StatusSignal<Double> rightSupplyCurrent = shooterRight.getSupplyCurrent();
+
+    private final StatusSignal<Double> kickerAppliedVolts = kicker.getMotorVoltage();
+    private final StatusSignal<Double> kickerStatorCurrent = kicker.getStatorCurrent();
+
+    // Only touched on the config thread, the startup blocks apply their own copy
+    private final Slot0Configs slot0 = defaultGains();
 
     DigitalInput bannerSensor = new DigitalInput(SensorConstants.indexerSensorPort);
 
@@ -28,42 +57,82 @@ public class ShooterIOTalon implements ShooterIO {
     double goalRightVelocityRPM = 0.0;
 
     public ShooterIOTalon() {
-        kicker.setInverted(true);
-
-        shooterLeft.setInverted(true);
-        shooterRight.setInverted(false);
-
-        shooterLeft.setNeutralMode(NeutralModeValue.Coast);
-        shooterRight.setNeutralMode(NeutralModeValue.Coast);
+        StartupConfigurator.configure("kicker", this::configureKicker);
+        StartupConfigurator.configure(
+                "shooterLeft",
+                () ->
+                        configureShooter(
+                                shooterLeft,
+                                true,
+                                leftVelocity,
+                                leftAppliedVolts,
+                                leftStatorCurrent,
+                                leftSupplyCurrent));
+        StartupConfigurator.configure(
+                "shooterRight",
+                () ->
+                        configureShooter(
+                                shooterRight,
+                                false,
+                                rightVelocity,
+                                rightAppliedVolts,
+                                rightStatorCurrent,
+                                rightSupplyCurrent));
+
+        StatusSignalRegistry.register(
+                leftVelocity,
+                leftAppliedVolts,
+                leftStatorCurrent,
+                leftSupplyCurrent,
+                rightVelocity,
+                rightAppliedVolts,
+                rightStatorCurrent,
+                rightSupplyCurrent,
+                kickerAppliedVolts,
+                kickerStatorCurrent);
+    }
 
-        TalonFXConfigurator shooterLeftConfig = shooterLeft.getConfigurator();
-        shooterLeftConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(120)
-                        .withStatorCurrentLimitEnable(true));
+    // Run on a startup thread, and again if any call fails
+    private boolean configureKicker() {
+        kicker.setInverted(true);
 
-        TalonFXConfigurator shooterRightConfig = shooterRight.getConfigurator();
-        shooterRightConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(120)
-                        .withStatorCurrentLimitEnable(true));
+        boolean ok = kicker.getConfigurator().apply(currentLimits()).isOK();
+        ok &=
+                CANBudget.setFrequency(
+                        kicker,
+                        CANDevices.mechanismSignalFrequencyHz,
+                        kickerAppliedVolts,
+                        kickerStatorCurrent);
+        ok &= CANBudget.optimize(kicker);
+        return ok;
+    }
 
-        TalonFXConfigurator kickerConfig = kicker.getConfigurator();
-        kickerConfig.apply(
-                new CurrentLimitsConfigs()
-                        .withStatorCurrentLimit(120)
-                        .withStatorCurrentLimitEnable(true));
+    private boolean configureShooter(
+            TalonFX motor, boolean inverted, BaseStatusSignal... loggedSignals) {
+        motor.setInverted(inverted);
 
-        slot0.withKP(ScoringConstants.shooterkP);
-        slot0.withKI(ScoringConstants.shooterkI);
-        slot0.withKD(ScoringConstants.shooterkD);
+        boolean ok = motor.setNeutralMode(NeutralModeValue.Coast).isOK();
+        ok &= motor.getConfigurator().apply(currentLimits()).isOK();
+        ok &= motor.getConfigurator().apply(defaultGains()).isOK();
+        ok &= CANBudget.setFrequency(motor, CANDevices.mechanismSignalFrequencyHz, loggedSignals);
+        ok &= CANBudget.optimize(motor);
+        return ok;
+    }
 
-        slot0.withKS(ScoringConstants.shooterkS);
-        slot0.withKV(ScoringConstants.shooterkV);
-        slot0.withKA(ScoringConstants.shooterkA);
+    private static Slot0Configs defaultGains() {
+        return new Slot0Configs()
+                .withKP(ScoringConstants.shooterkP)
+                .withKI(ScoringConstants.shooterkI)
+                .withKD(ScoringConstants.shooterkD)
+                .withKS(ScoringConstants.shooterkS)
+                .withKV(ScoringConstants.shooterkV)
+                .withKA(ScoringConstants.shooterkA);
+    }
 
-        shooterLeft.getConfigurator().apply(slot0);
-        shooterRight.getConfigurator().apply(slot0);
+    private static CurrentLimitsConfigs currentLimits() {
+        return new CurrentLimitsConfigs()
+                .withStatorCurrentLimit(120)
+                .withStatorCurrentLimitEnable(true);
     }
 
     @Override
@@ -72,21 +141,19 @@ public class ShooterIOTalon implements ShooterIO {
         goalRightVelocityRPM = velocity * ScoringConstants.shooterOffsetAdjustment;
 
         if (velocity == 0.0) {
-            shooterLeft.setVoltage(0.0);
-            shooterRight.setVoltage(0.0);
+            cachedShooterLeft.setVoltage(0.0);
+            cachedShooterRight.setVoltage(0.0);
         } else {
-            shooterLeft.setControl(
-                    new VelocityDutyCycle(
-                            goalLeftVelocityRPM / ConversionConstants.kMinutesToSeconds));
-            shooterRight.setControl(
-                    new VelocityDutyCycle(
-                            goalRightVelocityRPM / ConversionConstants.kMinutesToSeconds));
+            double leftTargetRPS = goalLeftVelocityRPM / ConversionConstants.kMinutesToSeconds;
+            double rightTargetRPS = goalRightVelocityRPM / ConversionConstants.kMinutesToSeconds;
+            cachedShooterLeft.setControl(leftVelocityRequest.withVelocity(leftTargetRPS));
+            cachedShooterRight.setControl(rightVelocityRequest.withVelocity(rightTargetRPS));
         }
     }
 
     @Override
     public void setKickerVolts(double volts) {
-        kicker.setVoltage(volts);
+        cachedKicker.setVoltage(volts);
     }
 
     @Override
@@ -100,50 +167,60 @@ public class ShooterIOTalon implements ShooterIO {
     }
 
     @Override
-    public void setPID(double p, double i, double d) {
-        slot0.withKP(p);
-        slot0.withKI(i);
-        slot0.withKD(d);
-
-        shooterLeft.getConfigurator().apply(slot0);
-        shooterRight.getConfigurator().apply(slot0);
+    public CompletableFuture<Boolean> setPID(double p, double i, double d) {
+        return ConfigExecutor.submit(
+                "shooter gains",
+                () -> {
+                    slot0.withKP(p);
+                    slot0.withKI(i);
+                    slot0.withKD(d);
+
+                    return applyGains();
+                });
     }
 
     @Override
-    public void setFF(double kS, double kV, double kA) {
-        slot0.withKS(kS);
-        slot0.withKV(kV);
-        slot0.withKA(kA);
+    public CompletableFuture<Boolean> setFF(double kS, double kV, double kA) {
+        return ConfigExecutor.submit(
+                "shooter feedforward",
+                () -> {
+                    slot0.withKS(kS);
+                    slot0.withKV(kV);
+                    slot0.withKA(kA);
+
+                    return applyGains();
+                });
+    }
 
-        shooterLeft.getConfigurator().apply(slot0);
-        shooterRight.getConfigurator().apply(slot0);
+    private boolean applyGains() {
+        boolean leftOk = shooterLeft.getConfigurator().apply(slot0).isOK();
+        boolean rightOk = shooterRight.getConfigurator().apply(slot0).isOK();
+        return leftOk && rightOk;
     }
 
     @Override
     public void updateInputs(ShooterIOInputs inputs) {
         if (override) {
-            shooterLeft.setVoltage(overrideVolts);
-            shooterRight.setVoltage(overrideVolts);
+            cachedShooterLeft.setVoltage(overrideVolts);
+            cachedShooterRight.setVoltage(overrideVolts);
         }
 
         inputs.shooterLeftVelocityRPM =
-                shooterLeft.getVelocity().getValueAsDouble()
-                        / ConversionConstants.kSecondsToMinutes;
+                leftVelocity.getValueAsDouble() / ConversionConstants.kSecondsToMinutes;
         inputs.shooterLeftGoalVelocityRPM = goalLeftVelocityRPM;
-        inputs.shooterLeftAppliedVolts = shooterLeft.getMotorVoltage().getValueAsDouble();
-        inputs.shooterLeftStatorCurrentAmps = shooterLeft.getStatorCurrent().getValueAsDouble();
-        inputs.shooterLeftSupplyCurrentAmps = shooterLeft.getSupplyCurrent().getValueAsDouble();
+        inputs.shooterLeftAppliedVolts = leftAppliedVolts.getValueAsDouble();
+        inputs.shooterLeftStatorCurrentAmps = leftStatorCurrent.getValueAsDouble();
+        inputs.shooterLeftSupplyCurrentAmps = leftSupplyCurrent.getValueAsDouble();
 
         inputs.shooterRightVelocityRPM =
-                shooterRight.getVelocity().getValueAsDouble()
-                        / ConversionConstants.kSecondsToMinutes;
+                rightVelocity.getValueAsDouble() / ConversionConstants.kSecondsToMinutes;
         inputs.shooterRightGoalVelocityRPM = goalRightVelocityRPM;
-        inputs.shooterRightAppliedVolts = shooterRight.getMotorVoltage().getValueAsDouble();
-        inputs.shooterRightStatorCurrentAmps = shooterRight.getStatorCurrent().getValueAsDouble();
-        inputs.shooterRightSupplyCurrentAmps = shooterRight.getSupplyCurrent().getValueAsDouble();
+        inputs.shooterRightAppliedVolts = rightAppliedVolts.getValueAsDouble();
+        inputs.shooterRightStatorCurrentAmps = rightStatorCurrent.getValueAsDouble();
+        inputs.shooterRightSupplyCurrentAmps = rightSupplyCurrent.getValueAsDouble();
 
-        inputs.kickerAppliedVolts = kicker.getMotorVoltage().getValueAsDouble();
-        inputs.kickerStatorCurrentAmps = kicker.getStatorCurrent().getValueAsDouble();
+        inputs.kickerAppliedVolts = kickerAppliedVolts.getValueAsDouble();
+        inputs.kickerStatorCurrentAmps = kickerStatorCurrent.getValueAsDouble();
 
         inputs.bannerSensor = !bannerSensor.get();
     }
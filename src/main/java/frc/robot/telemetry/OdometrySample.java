@@ -0,0 +1,22 @@
+package frc.robot.telemetry;
+
+/**
+ * One odometry update from the drivetrain's odometry thread, filled in place by {@link
+ * OdometrySampleQueue#poll(OdometrySample)} so draining the queue never allocates.
+ */
+public class OdometrySample {
+    /** Time of the odometry update, in seconds */
+    public double timestamp = 0.0;
+
+    // Field relative pose after the update
+    public double x = 0.0;
+    public double y = 0.0;
+    public double thetaRadians = 0.0;
+
+    /** Latency compensated gyro yaw, in degrees, before any odometry reset offset */
+    public double gyroYawDegrees = 0.0;
+
+    // Module positions the update was computed from, indexed the same as the drivetrain modules
+    public final double[] moduleDistancesMeters = new double[TelemetrySnapshot.moduleCount];
+    public final double[] moduleAnglesRadians = new double[TelemetrySnapshot.moduleCount];
+}
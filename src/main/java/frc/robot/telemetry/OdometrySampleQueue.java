@@ -0,0 +1,127 @@
+package frc.robot.telemetry;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+/**
+ * Bounded ring buffer carrying every odometry update from the odometry thread to the main loop.
+ * Odometry runs several times per robot loop, so reading the latest drive state alone throws most
+ * samples away.
+ *
+ * <p>Lock free for exactly one producer (the odometry thread) and one consumer (the main thread).
+ * Samples are stored in primitive arrays, so neither side allocates. When the main loop falls far
+ * enough behind to fill the buffer, new samples are dropped and counted instead of overwriting ones
+ * the consumer may be reading.
+ */
+public class OdometrySampleQueue {
+    private static final int moduleCount = TelemetrySnapshot.moduleCount;
+
+    private final int capacity;
+    private final int mask;
+
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+    private final double[] gyroYaws;
+    private final double[] moduleDistances;
+    private final double[] moduleAngles;
+
+    // Only the producer writes writeIndex and dropped, only the consumer writes readIndex. The
+    // volatile index writes publish the slot contents written before them.
+    private volatile long writeIndex = 0;
+    private volatile long readIndex = 0;
+    private volatile long dropped = 0;
+
+    /**
+     * @param capacity The number of samples the buffer holds, must be a power of two
+     */
+    public OdometrySampleQueue(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(
+                    "Odometry sample queue capacity must be a power of 2");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+
+        timestamps = new double[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        thetas = new double[capacity];
+        gyroYaws = new double[capacity];
+        moduleDistances = new double[capacity * moduleCount];
+        moduleAngles = new double[capacity * moduleCount];
+    }
+
+    /**
+     * Adds a sample. Only call this from the odometry thread.
+     *
+     * @param timestamp The time of the odometry update in seconds
+     * @param pose The field relative pose after the update
+     * @param gyroYawDegrees The gyro yaw the update used
+     * @param modulePositions The module positions the update used
+     * @return {@code false} if the buffer was full and the sample was dropped
+     */
+    public boolean offer(
+            double timestamp,
+            Pose2d pose,
+            double gyroYawDegrees,
+            SwerveModulePosition[] modulePositions) {
+        long write = writeIndex;
+        if (write - readIndex >= capacity) {
+            dropped = dropped + 1;
+            return false;
+        }
+
+        int slot = (int) write & mask;
+        timestamps[slot] = timestamp;
+        xs[slot] = pose.getX();
+        ys[slot] = pose.getY();
+        thetas[slot] = pose.getRotation().getRadians();
+        gyroYaws[slot] = gyroYawDegrees;
+        for (int i = 0; i < moduleCount; i++) {
+            moduleDistances[slot * moduleCount + i] = modulePositions[i].distanceMeters;
+            moduleAngles[slot * moduleCount + i] = modulePositions[i].angle.getRadians();
+        }
+
+        writeIndex = write + 1;
+        return true;
+    }
+
+    /**
+     * Removes the oldest sample. Only call this from the main thread.
+     *
+     * @param sample The sample to fill
+     * @return {@code false} if there was nothing to read, in which case the sample is untouched
+     */
+    public boolean poll(OdometrySample sample) {
+        long read = readIndex;
+        if (read == writeIndex) {
+            return false;
+        }
+
+        int slot = (int) read & mask;
+        sample.timestamp = timestamps[slot];
+        sample.x = xs[slot];
+        sample.y = ys[slot];
+        sample.thetaRadians = thetas[slot];
+        sample.gyroYawDegrees = gyroYaws[slot];
+        for (int i = 0; i < moduleCount; i++) {
+            sample.moduleDistancesMeters[i] = moduleDistances[slot * moduleCount + i];
+            sample.moduleAnglesRadians[i] = moduleAngles[slot * moduleCount + i];
+        }
+
+        readIndex = read + 1;
+        return true;
+    }
+
+    /** Returns the number of samples waiting to be read */
+    public int size() {
+        return (int) (writeIndex - readIndex);
+    }
+
+    /** Returns the total number of samples dropped because the buffer was full */
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
@@ -0,0 +1,194 @@
+package frc.robot.telemetry;
+
+import edu.wpi.first.math.MathUtil;
+
+/**
+ * Time indexed history of field poses, kept in a ring of primitive arrays. Past poses are found
+ * by binary search and interpolated between the two nearest samples, and poses a short time ahead
+ * are predicted from the newest sample and a velocity.
+ *
+ * <p>Filled and read in place so it never allocates. Only use this from one thread.
+ */
+public class PoseHistory {
+    /** A pose at a point in time, filled in place by the lookups */
+    public static class Sample {
+        public double timestamp = 0.0;
+        public double x = 0.0;
+        public double y = 0.0;
+        public double thetaRadians = 0.0;
+    }
+
+    private final int capacity;
+    private final double maxPredictionSeconds;
+
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+
+    // Index of the oldest sample, and how many samples are stored
+    private int start = 0;
+    private int size = 0;
+
+    /**
+     * @param capacity The number of samples to keep, older samples are overwritten
+     * @param maxPredictionSeconds The furthest ahead {@link #predict} will extrapolate
+     */
+    public PoseHistory(int capacity, double maxPredictionSeconds) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Pose history needs room for at least 2 samples");
+        }
+        this.capacity = capacity;
+        this.maxPredictionSeconds = maxPredictionSeconds;
+
+        timestamps = new double[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        thetas = new double[capacity];
+    }
+
+    /**
+     * Adds a sample. Samples must arrive in time order, so ones that aren't newer than the newest
+     * sample are ignored.
+     *
+     * @param timestamp The time of the pose in seconds
+     * @param x The field relative x position
+     * @param y The field relative y position
+     * @param thetaRadians The field relative heading
+     * @return {@code false} if the sample was out of order and ignored
+     */
+    public boolean addSample(double timestamp, double x, double y, double thetaRadians) {
+        if (size > 0 && !(timestamp > timestamps[index(size - 1)])) {
+            return false;
+        }
+
+        int slot;
+        if (size < capacity) {
+            slot = index(size);
+            size++;
+        } else {
+            slot = start;
+            start = index(1);
+        }
+
+        timestamps[slot] = timestamp;
+        xs[slot] = x;
+        ys[slot] = y;
+        thetas[slot] = thetaRadians;
+        return true;
+    }
+
+    /** Forgets every sample, as when odometry is reset and the old poses no longer apply */
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * This method is used to find where the robot was at a past time. Times after the newest
+     * sample return the newest sample.
+     *
+     * @param timestamp The time to look up in seconds
+     * @param sample The sample to fill
+     * @return {@code false} if the time is older than the history, or there is no history, in
+     *     which case the sample is untouched
+     */
+    public boolean lookup(double timestamp, Sample sample) {
+        if (size == 0 || timestamp < timestamps[start]) {
+            return false;
+        }
+
+        int newest = index(size - 1);
+        if (timestamp >= timestamps[newest]) {
+            fill(newest, sample);
+            return true;
+        }
+
+        // Find the last sample at or before the time; the one after it is guaranteed to exist
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (timestamps[index(mid)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        int before = index(low);
+        int after = index(low + 1);
+        double t = (timestamp - timestamps[before]) / (timestamps[after] - timestamps[before]);
+
+        sample.timestamp = timestamp;
+        sample.x = xs[before] + (xs[after] - xs[before]) * t;
+        sample.y = ys[before] + (ys[after] - ys[before]) * t;
+        sample.thetaRadians =
+                MathUtil.angleModulus(
+                        thetas[before] + MathUtil.angleModulus(thetas[after] - thetas[before]) * t);
+        return true;
+    }
+
+    /**
+     * This method is used to predict where the robot will be a short time after the newest sample,
+     * assuming it keeps its current velocity. Predictions are limited to the maximum prediction
+     * time past the newest sample, and times before the newest sample are looked up instead.
+     *
+     * @param timestamp The time to predict for in seconds
+     * @param velocityX The field relative x velocity in meters per second
+     * @param velocityY The field relative y velocity in meters per second
+     * @param rotationVelocity The rotational velocity in radians per second
+     * @param sample The sample to fill
+     * @return {@code false} if there is no history, in which case the sample is untouched
+     */
+    public boolean predict(
+            double timestamp,
+            double velocityX,
+            double velocityY,
+            double rotationVelocity,
+            Sample sample) {
+        if (size == 0) {
+            return false;
+        }
+
+        int newest = index(size - 1);
+        double dt = timestamp - timestamps[newest];
+        if (dt <= 0.0) {
+            return lookup(timestamp, sample);
+        }
+        dt = Math.min(dt, maxPredictionSeconds);
+
+        sample.timestamp = timestamps[newest] + dt;
+        sample.x = xs[newest] + velocityX * dt;
+        sample.y = ys[newest] + velocityY * dt;
+        sample.thetaRadians = MathUtil.angleModulus(thetas[newest] + rotationVelocity * dt);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Returns the time of the newest sample, or NaN if there are none */
+    public double getNewestTimestamp() {
+        return size == 0 ? Double.NaN : timestamps[index(size - 1)];
+    }
+
+    /** Returns the time of the oldest sample, or NaN if there are none */
+    public double getOldestTimestamp() {
+        return size == 0 ? Double.NaN : timestamps[start];
+    }
+
+    private void fill(int slot, Sample sample) {
+        sample.timestamp = timestamps[slot];
+        sample.x = xs[slot];
+        sample.y = ys[slot];
+        sample.thetaRadians = thetas[slot];
+    }
+
+    // Slot of the i-th oldest sample
+    private int index(int i) {
+        int slot = start + i;
+        return slot >= capacity ? slot - capacity : slot;
+    }
+}
@@ -0,0 +1,280 @@
+package frc.robot.telemetry;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.FeatureFlags;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.Constants.ScoringConstants;
+import frc.robot.utils.AllianceUtil;
+import frc.robot.utils.FieldFinder;
+import frc.robot.utils.FieldFinder.FieldLocations;
+import frc.robot.utils.FieldZones;
+import frc.robot.utils.ShotTable;
+import frc.robot.utils.VirtualTargetSolver;
+import java.util.Optional;
+
+/**
+ * Where the robot is and what that means for this cycle, read from telemetry once before the
+ * scheduler runs. One instance is updated in place and shared with every subsystem, so all
+ * decisions in a cycle see the same pose even though Telemetry is written from the odometry thread,
+ * and values like the distance to the speaker are only worked out once.
+ *
+ * <p>Only read this from the main robot thread.
+ */
+public class RobotState {
+    private double timestamp = 0.0;
+
+    private Pose2d pose = new Pose2d();
+    private double velocityX = 0.0;
+    private double velocityY = 0.0;
+    private Translation2d velocity = null;
+    private double accelerationX = 0.0;
+    private double accelerationY = 0.0;
+    private double rotationVelocity = 0.0;
+
+    private Optional<Alliance> alliance = Optional.empty();
+
+    private Translation2d fieldToSpeaker = AllianceUtil.getFieldToSpeaker(alliance);
+    private double distanceToSpeaker = 0.0;
+    private double bearingToSpeakerRadians = 0.0;
+    private double radialVelocityToSpeaker = 0.0;
+
+    // Where the robot is predicted to be when a shot fired now leaves the shooter
+    private final PoseHistory poseHistory =
+            new PoseHistory(
+                    DriveConstants.poseHistoryCapacity, DriveConstants.maxPosePredictionSeconds);
+    private final PoseHistory.Sample releaseSample = new PoseHistory.Sample();
+    private Pose2d releasePose = null;
+
+    // The robot's one shot table, which every shot solution is read from
+    private static final ShotTable shotTable = ScoringConstants.getShotTable();
+    // Only used from the main thread, so every RobotState can share one
+    private static final VirtualTargetSolver shotSolver =
+            new VirtualTargetSolver(
+                    ScoringConstants.getMovingShotTable(shotTable),
+                    ScoringConstants.virtualTargetMaxIterations,
+                    ScoringConstants.virtualTargetToleranceMeters);
+    private final VirtualTargetSolver.Solution shotSolution = new VirtualTargetSolver.Solution();
+
+    private FieldLocations fieldLocation = FieldFinder.whereAmI(0.0, 0.0);
+    private int fieldZone = FieldZones.NO_ZONE;
+
+    private final TelemetrySnapshot telemetrySnapshot = new TelemetrySnapshot();
+
+    /**
+     * Adds an odometry update to the pose history. Call this for every queued sample before {@link
+     * #update(Telemetry)}, so the prediction starts from the newest one.
+     *
+     * @param sample The odometry update to add
+     */
+    public void addOdometrySample(OdometrySample sample) {
+        poseHistory.addSample(sample.timestamp, sample.x, sample.y, sample.thetaRadians);
+    }
+
+    /**
+     * Takes a new snapshot from telemetry. Call this once per cycle, before the scheduler runs.
+     *
+     * @param telemetry The drive telemetry to read from
+     */
+    public void update(Telemetry telemetry) {
+        // One torn-free read, so the pose and velocity come from the same odometry update
+        telemetry.readSnapshot(telemetrySnapshot);
+        if (FeatureFlags.useKalmanVelocity) {
+            update(
+                    telemetrySnapshot.timestamp,
+                    telemetrySnapshot.pose,
+                    telemetrySnapshot.estimatedVelocityX,
+                    telemetrySnapshot.estimatedVelocityY,
+                    telemetrySnapshot.estimatedAccelerationX,
+                    telemetrySnapshot.estimatedAccelerationY,
+                    telemetrySnapshot.rotationVelocity,
+                    DriverStation.getAlliance());
+        } else {
+            update(
+                    telemetrySnapshot.timestamp,
+                    telemetrySnapshot.pose,
+                    telemetrySnapshot.velocityX,
+                    telemetrySnapshot.velocityY,
+                    telemetrySnapshot.accelerationX,
+                    telemetrySnapshot.accelerationY,
+                    telemetrySnapshot.rotationVelocity,
+                    DriverStation.getAlliance());
+        }
+    }
+
+    /**
+     * Takes a new snapshot from explicit values
+     *
+     * @param timestamp The time of the odometry update in seconds
+     * @param pose The field relative pose of the robot
+     * @param velocityX The field relative x velocity in meters per second
+     * @param velocityY The field relative y velocity in meters per second
+     * @param accelerationX The field relative x acceleration in meters per second squared
+     * @param accelerationY The field relative y acceleration in meters per second squared
+     * @param rotationVelocity The rotational velocity in radians per second
+     * @param alliance The alliance reported by the driver station
+     */
+    public void update(
+            double timestamp,
+            Pose2d pose,
+            double velocityX,
+            double velocityY,
+            double accelerationX,
+            double accelerationY,
+            double rotationVelocity,
+            Optional<Alliance> alliance) {
+        this.timestamp = timestamp;
+        this.pose = pose;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.velocity = null;
+        this.accelerationX = accelerationX;
+        this.accelerationY = accelerationY;
+        this.rotationVelocity = rotationVelocity;
+        this.alliance = alliance;
+
+        fieldToSpeaker = AllianceUtil.getFieldToSpeaker(alliance);
+        double dx = fieldToSpeaker.getX() - pose.getX();
+        double dy = fieldToSpeaker.getY() - pose.getY();
+        distanceToSpeaker = Math.sqrt(dx * dx + dy * dy);
+        bearingToSpeakerRadians = Math.atan2(dy, dx);
+        if (distanceToSpeaker < 1e-6) {
+            radialVelocityToSpeaker = 0.0;
+        } else {
+            radialVelocityToSpeaker = (velocityX * dx + velocityY * dy) / distanceToSpeaker;
+        }
+
+        updateRelease();
+
+        fieldLocation = FieldFinder.whereAmI(pose.getX(), pose.getY());
+        fieldZone = FieldConstants.fieldZones.findZone(pose.getX(), pose.getY());
+    }
+
+    private void updateRelease() {
+        double releaseTime = timestamp + ScoringConstants.shotReleaseLatencySeconds;
+        if (!poseHistory.predict(
+                releaseTime, velocityX, velocityY, rotationVelocity, releaseSample)) {
+            // No odometry samples yet, so predict from the snapshot pose
+            double dt = ScoringConstants.shotReleaseLatencySeconds;
+            releaseSample.timestamp = releaseTime;
+            releaseSample.x = pose.getX() + velocityX * dt;
+            releaseSample.y = pose.getY() + velocityY * dt;
+            releaseSample.thetaRadians = pose.getRotation().getRadians() + rotationVelocity * dt;
+        }
+        releasePose = null;
+
+        shotSolver.solve(
+                releaseSample.x,
+                releaseSample.y,
+                velocityX,
+                velocityY,
+                fieldToSpeaker.getX(),
+                fieldToSpeaker.getY(),
+                shotSolution);
+    }
+
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    public Pose2d getPose() {
+        return pose;
+    }
+
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    public double getVelocityY() {
+        return velocityY;
+    }
+
+    public Translation2d getVelocity() {
+        // Built on first use, since most cycles only need the components
+        if (velocity == null) {
+            velocity = new Translation2d(velocityX, velocityY);
+        }
+        return velocity;
+    }
+
+    public double getAccelerationX() {
+        return accelerationX;
+    }
+
+    public double getAccelerationY() {
+        return accelerationY;
+    }
+
+    public double getRotationVelocity() {
+        return rotationVelocity;
+    }
+
+    public Optional<Alliance> getAlliance() {
+        return alliance;
+    }
+
+    public boolean isRedAlliance() {
+        return alliance.isPresent() && alliance.get() == Alliance.Red;
+    }
+
+    public Translation2d getFieldToSpeaker() {
+        return fieldToSpeaker;
+    }
+
+    public double getDistanceToSpeaker() {
+        return distanceToSpeaker;
+    }
+
+    /** Returns the field relative direction from the robot to the speaker */
+    public double getBearingToSpeakerRadians() {
+        return bearingToSpeakerRadians;
+    }
+
+    /** Returns the robot's velocity along the line to the speaker, positive when closing in */
+    public double getRadialVelocityToSpeaker() {
+        return radialVelocityToSpeaker;
+    }
+
+    /** Returns the predicted pose when a shot fired this cycle leaves the shooter */
+    public Pose2d getReleasePose() {
+        if (releasePose == null) {
+            releasePose =
+                    new Pose2d(
+                            releaseSample.x,
+                            releaseSample.y,
+                            Rotation2d.fromRadians(releaseSample.thetaRadians));
+        }
+        return releasePose;
+    }
+
+    /**
+     * Returns the speaker shot for this cycle, fired from {@link #getReleasePose()} and corrected
+     * for the robot's velocity. Both the drivetrain heading and the shooter setpoints come from it.
+     */
+    public VirtualTargetSolver.Solution getShotSolution() {
+        return shotSolution;
+    }
+
+    /** Returns the static shot table behind every shot solution */
+    public static ShotTable getShotTable() {
+        return shotTable;
+    }
+
+    /** Returns the recent odometry poses, for looking up where the robot was at a past time */
+    public PoseHistory getPoseHistory() {
+        return poseHistory;
+    }
+
+    public FieldLocations getFieldLocation() {
+        return fieldLocation;
+    }
+
+    /** Returns the id of the {@link FieldZones} zone the robot is in */
+    public int getFieldZone() {
+        return fieldZone;
+    }
+}
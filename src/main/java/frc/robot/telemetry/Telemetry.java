@@ -5,12 +5,14 @@ import com.ctre.phoenix6.mechanisms.swerve.SwerveDrivetrain.SwerveDriveState;
 import edu.wpi.first.math.filter.LinearFilter;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.geometry.Translation3d;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import frc.robot.Constants;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.utils.ConstantAccelerationKalmanFilter;
+import java.lang.invoke.VarHandle;
 import org.littletonrobotics.junction.Logger;
 
 public class Telemetry {
@@ -26,40 +28,57 @@ public class Telemetry {
         this.telemetryIo = telemetryIo;
     }
 
-    SwerveModuleState[] moduleStates =
-            new SwerveModuleState[] {
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState()
-            };
-
-    SwerveModuleState[] moduleGoalStates =
-            new SwerveModuleState[] {
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState()
-            };
-
-    double robotRotation = 0;
-    double robotRotationVelocity = 0;
+    /* Only touched by the odometry thread, in telemeterize */
     double robotRotationLast = 0;
 
-    double velocityXFiltered = 0.0;
-    double velocityYFiltered = 0.0;
     LinearFilter velocityXFilter = LinearFilter.singlePoleIIR(0.1, Constants.loopTime);
     LinearFilter velocityYFilter = LinearFilter.singlePoleIIR(0.1, Constants.loopTime);
     LinearFilter accelXFilter = LinearFilter.singlePoleIIR(0.1, Constants.loopTime);
     LinearFilter accelYFilter = LinearFilter.singlePoleIIR(0.1, Constants.loopTime);
 
-    double accelXFiltered = 0.0;
-    double accelYFiltered = 0.0;
     /* Keep a reference of the last pose to calculate the speeds */
-    Pose2d latestPose = new Pose2d();
+    Pose2d lastPose = new Pose2d();
     double lastTime = Utils.getCurrentTimeSeconds();
 
-    SwerveModuleState[] latestModuleStates = new SwerveModuleState[4];
+    /* Fuses odometry poses with module velocities for low lag velocity and acceleration */
+    ConstantAccelerationKalmanFilter kalmanX =
+            new ConstantAccelerationKalmanFilter(DriveConstants.kalmanJerkStdDev);
+    ConstantAccelerationKalmanFilter kalmanY =
+            new ConstantAccelerationKalmanFilter(DriveConstants.kalmanJerkStdDev);
+    boolean kalmanInitialized = false;
+
+    /*
+     * State published by the odometry thread through a sequence lock. The writer makes the
+     * sequence odd, writes the fields, then makes it even again. A reader copies the fields and
+     * retries if the sequence was odd or has changed since it started, so it always sees one
+     * complete update. The writer never waits on readers and neither side locks or allocates.
+     */
+    private volatile int sequence = 0;
+
+    private double publishedTimestamp = 0.0;
+    private Pose2d publishedPose = new Pose2d();
+    private double publishedVelocityX = 0.0;
+    private double publishedVelocityY = 0.0;
+    private double publishedAccelerationX = 0.0;
+    private double publishedAccelerationY = 0.0;
+    private double publishedRotationVelocity = 0.0;
+    private double publishedEstimatedVelocityX = 0.0;
+    private double publishedEstimatedVelocityY = 0.0;
+    private double publishedEstimatedAccelerationX = 0.0;
+    private double publishedEstimatedAccelerationY = 0.0;
+    private double publishedVelocityVarianceX = 0.0;
+    private double publishedVelocityVarianceY = 0.0;
+    private double publishedAccelerationVarianceX = 0.0;
+    private double publishedAccelerationVarianceY = 0.0;
+    private final SwerveModuleState[] publishedModuleStates = TelemetrySnapshot.newModuleStates();
+    private final SwerveModuleState[] publishedModuleGoalStates =
+            TelemetrySnapshot.newModuleStates();
+
+    /* Main thread copies, reused every cycle */
+    private final TelemetrySnapshot logSnapshot = new TelemetrySnapshot();
+    private final TelemetrySnapshot getterSnapshot = new TelemetrySnapshot();
+    private Pose2d pose3dSource = null;
+    private Pose3d pose3d = new Pose3d();
 
     /* Accept the swerve drive state and telemeterize it to smartdashboard */
     public void telemeterize(SwerveDriveState state) {
@@ -71,32 +90,148 @@ public class Telemetry {
         /* Telemeterize the pose */
         Pose2d pose = state.Pose;
 
-        robotRotation = pose.getRotation().getRadians();
+        double robotRotation = pose.getRotation().getRadians();
 
         /* Telemeterize the robot's general speeds */
         double currentTime = Utils.getCurrentTimeSeconds();
         double diffTime = currentTime - lastTime;
         lastTime = currentTime;
 
-        Translation2d velocityFieldRelative =
-                new Translation2d(pose.getX() - latestPose.getX(), pose.getY() - latestPose.getY())
-                        .div(diffTime);
+        double velocityXFieldRelative = (pose.getX() - lastPose.getX()) / diffTime;
+        double velocityYFieldRelative = (pose.getY() - lastPose.getY()) / diffTime;
 
-        latestPose = pose;
+        lastPose = pose;
 
         double robotRotationDiff = robotRotation - robotRotationLast;
-        robotRotationVelocity = robotRotationDiff / diffTime;
+        double robotRotationVelocity = robotRotationDiff / diffTime;
 
         robotRotationLast = robotRotation;
 
-        velocityXFiltered = velocityXFilter.calculate(velocityFieldRelative.getX());
-        velocityYFiltered = velocityYFilter.calculate(velocityFieldRelative.getY());
-        accelXFiltered = accelXFilter.calculate(telemetryInputs.accelerationX);
-        accelYFiltered = accelYFilter.calculate(telemetryInputs.accelerationY);
+        double velocityXFiltered = velocityXFilter.calculate(velocityXFieldRelative);
+        double velocityYFiltered = velocityYFilter.calculate(velocityYFieldRelative);
+        double accelXFiltered = accelXFilter.calculate(telemetryInputs.accelerationX);
+        double accelYFiltered = accelYFilter.calculate(telemetryInputs.accelerationY);
+
+        updateKalmanFilters(state, diffTime);
+
+        int start = sequence;
+        sequence = start + 1;
+        // Keep the writes below from being reordered before the sequence goes odd
+        VarHandle.storeStoreFence();
+
+        publishedTimestamp = currentTime;
+        publishedPose = pose;
+        publishedVelocityX = velocityXFiltered;
+        publishedVelocityY = velocityYFiltered;
+        publishedAccelerationX = accelXFiltered;
+        publishedAccelerationY = accelYFiltered;
+        publishedRotationVelocity = robotRotationVelocity;
+        publishedEstimatedVelocityX = kalmanX.getVelocity();
+        publishedEstimatedVelocityY = kalmanY.getVelocity();
+        publishedEstimatedAccelerationX = kalmanX.getAcceleration();
+        publishedEstimatedAccelerationY = kalmanY.getAcceleration();
+        publishedVelocityVarianceX = kalmanX.getVelocityVariance();
+        publishedVelocityVarianceY = kalmanY.getVelocityVariance();
+        publishedAccelerationVarianceX = kalmanX.getAccelerationVariance();
+        publishedAccelerationVarianceY = kalmanY.getAccelerationVariance();
+        TelemetrySnapshot.copyModuleStates(state.ModuleStates, publishedModuleStates);
+        TelemetrySnapshot.copyModuleStates(state.ModuleTargets, publishedModuleGoalStates);
+
+        // Volatile write, so everything above is visible before the sequence goes even
+        sequence = start + 2;
+    }
+
+    private void updateKalmanFilters(SwerveDriveState state, double dt) {
+        Pose2d pose = state.Pose;
+        double positionStdDev = DriveConstants.kalmanPositionStdDevMeters;
+        double positionVariance = positionStdDev * positionStdDev;
+
+        if (!kalmanInitialized || !(dt > 0.0) || dt > DriveConstants.kalmanMaxTimeStepSeconds) {
+            kalmanX.reset(pose.getX(), positionVariance, 1.0, 1.0);
+            kalmanY.reset(pose.getY(), positionVariance, 1.0, 1.0);
+            kalmanInitialized = true;
+            return;
+        }
+
+        kalmanX.predict(dt);
+        kalmanY.predict(dt);
+
+        if (Math.abs(pose.getX() - kalmanX.getPosition()) > DriveConstants.kalmanPoseJumpMeters
+                || Math.abs(pose.getY() - kalmanY.getPosition())
+                        > DriveConstants.kalmanPoseJumpMeters) {
+            kalmanX.setPosition(pose.getX());
+            kalmanY.setPosition(pose.getY());
+        } else {
+            kalmanX.correctPosition(pose.getX(), positionVariance);
+            kalmanY.correctPosition(pose.getY(), positionVariance);
+        }
+
+        // The module offsets are symmetric about the center, so rotation cancels out of the mean
+        // module velocity and what's left is the robot relative translation
+        double robotVelocityX = 0.0;
+        double robotVelocityY = 0.0;
+        for (int i = 0; i < TelemetrySnapshot.moduleCount; i++) {
+            SwerveModuleState module = state.ModuleStates[i];
+            robotVelocityX += module.speedMetersPerSecond * module.angle.getCos();
+            robotVelocityY += module.speedMetersPerSecond * module.angle.getSin();
+        }
+        robotVelocityX /= TelemetrySnapshot.moduleCount;
+        robotVelocityY /= TelemetrySnapshot.moduleCount;
+
+        double cos = pose.getRotation().getCos();
+        double sin = pose.getRotation().getSin();
+        double velocityStdDev = DriveConstants.kalmanModuleVelocityStdDev;
+        double velocityVariance = velocityStdDev * velocityStdDev;
+        kalmanX.correctVelocity(robotVelocityX * cos - robotVelocityY * sin, velocityVariance);
+        kalmanY.correctVelocity(robotVelocityX * sin + robotVelocityY * cos, velocityVariance);
+    }
+
+    /**
+     * Copies the latest odometry update into a snapshot. Safe to call from any thread, and never
+     * blocks the odometry thread.
+     *
+     * @param snapshot The snapshot to fill
+     */
+    public void readSnapshot(TelemetrySnapshot snapshot) {
+        int start;
+        do {
+            start = beginRead();
+
+            snapshot.timestamp = publishedTimestamp;
+            snapshot.pose = publishedPose;
+            snapshot.velocityX = publishedVelocityX;
+            snapshot.velocityY = publishedVelocityY;
+            snapshot.accelerationX = publishedAccelerationX;
+            snapshot.accelerationY = publishedAccelerationY;
+            snapshot.rotationVelocity = publishedRotationVelocity;
+            snapshot.estimatedVelocityX = publishedEstimatedVelocityX;
+            snapshot.estimatedVelocityY = publishedEstimatedVelocityY;
+            snapshot.estimatedAccelerationX = publishedEstimatedAccelerationX;
+            snapshot.estimatedAccelerationY = publishedEstimatedAccelerationY;
+            snapshot.velocityVarianceX = publishedVelocityVarianceX;
+            snapshot.velocityVarianceY = publishedVelocityVarianceY;
+            snapshot.accelerationVarianceX = publishedAccelerationVarianceX;
+            snapshot.accelerationVarianceY = publishedAccelerationVarianceY;
+            TelemetrySnapshot.copyModuleStates(publishedModuleStates, snapshot.moduleStates);
+            TelemetrySnapshot.copyModuleStates(
+                    publishedModuleGoalStates, snapshot.moduleGoalStates);
+        } while (!endRead(start));
+    }
 
-        latestModuleStates = state.ModuleStates;
+    // Waits out a write in progress, which is only ever a few field copies long
+    private int beginRead() {
+        int start = sequence;
+        while ((start & 1) != 0) {
+            Thread.onSpinWait();
+            start = sequence;
+        }
+        return start;
+    }
 
-        moduleGoalStates = state.ModuleTargets;
+    // Whether nothing was published since beginRead, so the fields read in between are consistent
+    private boolean endRead(int start) {
+        VarHandle.loadLoadFence();
+        return sequence == start;
     }
 
     /**
@@ -104,81 +239,186 @@ public class Telemetry {
      * CommandScheduler.
      */
     public void logDataSynchronously() {
-        Pose2d pose = new Pose2d(latestPose.getX(), latestPose.getY(), latestPose.getRotation());
+        readSnapshot(logSnapshot);
+        Pose2d pose = logSnapshot.pose;
+
+        // Poses are immutable, so the 3d copy only has to be rebuilt when odometry has moved on
+        if (pose != pose3dSource) {
+            pose3d = toPose3d(pose);
+            pose3dSource = pose;
+        }
 
-        telemetryIo.setRobotPose(getFieldToRobot3d());
+        telemetryIo.setRobotPose(pose3d);
         telemetryIo.setRobotPose(pose);
-        telemetryIo.setSwerveModuleStates(getModuleStates());
-        telemetryIo.setSwerveModuleGoalStates(getModuleGoalStates());
+        telemetryIo.setSwerveModuleStates(logSnapshot.moduleStates);
+        telemetryIo.setSwerveModuleGoalStates(logSnapshot.moduleGoalStates);
 
-        telemetryIo.setRobotRotation(robotRotation);
-        telemetryIo.setRobotRotationVelocity(robotRotationVelocity);
+        telemetryIo.setRobotRotation(pose.getRotation().getRadians());
+        telemetryIo.setRobotRotationVelocity(logSnapshot.rotationVelocity);
 
         // telemetryIo.setDriveAppliedVolts();
 
         telemetryIo.updateInputs(telemetryInputs);
         Logger.processInputs("telemetry", telemetryInputs);
+
+        // Both velocity estimates, so the Kalman filter can be compared against the one in use
+        Logger.recordOutput("telemetry/filteredVelocityX", logSnapshot.velocityX);
+        Logger.recordOutput("telemetry/filteredVelocityY", logSnapshot.velocityY);
+        Logger.recordOutput("telemetry/filteredAccelerationX", logSnapshot.accelerationX);
+        Logger.recordOutput("telemetry/filteredAccelerationY", logSnapshot.accelerationY);
+        Logger.recordOutput("telemetry/estimatedVelocityX", logSnapshot.estimatedVelocityX);
+        Logger.recordOutput("telemetry/estimatedVelocityY", logSnapshot.estimatedVelocityY);
+        Logger.recordOutput("telemetry/estimatedAccelerationX", logSnapshot.estimatedAccelerationX);
+        Logger.recordOutput("telemetry/estimatedAccelerationY", logSnapshot.estimatedAccelerationY);
+        Logger.recordOutput("telemetry/velocityStdDevX", Math.sqrt(logSnapshot.velocityVarianceX));
+        Logger.recordOutput("telemetry/velocityStdDevY", Math.sqrt(logSnapshot.velocityVarianceY));
     }
 
     public double getRotationRadians() {
-        return robotRotation;
+        return getFieldToRobot().getRotation().getRadians();
     }
 
     public double getRobotRotationRadians() {
-        return robotRotationVelocity;
+        double rotationVelocity;
+        int start;
+        do {
+            start = beginRead();
+            rotationVelocity = publishedRotationVelocity;
+        } while (!endRead(start));
+        return rotationVelocity;
     }
 
     public Pose2d getFieldToRobot() {
-        return latestPose;
+        Pose2d pose;
+        int start;
+        do {
+            start = beginRead();
+            pose = publishedPose;
+        } while (!endRead(start));
+        return pose;
     }
 
     public Pose3d getFieldToRobot3d() {
+        return toPose3d(getFieldToRobot());
+    }
+
+    private static Pose3d toPose3d(Pose2d pose) {
         return new Pose3d(
-                new Translation3d(latestPose.getX(), latestPose.getY(), 0),
-                new Rotation3d(0, 0, getRotationRadians()));
+                new Translation3d(pose.getX(), pose.getY(), 0),
+                new Rotation3d(0, 0, pose.getRotation().getRadians()));
     }
 
     public Translation2d getVelocity() {
-        return new Translation2d(velocityXFiltered, velocityYFiltered);
+        double velocityX;
+        double velocityY;
+        int start;
+        do {
+            start = beginRead();
+            velocityX = publishedVelocityX;
+            velocityY = publishedVelocityY;
+        } while (!endRead(start));
+        return new Translation2d(velocityX, velocityY);
     }
 
+    /**
+     * Returns the latest measured module states. Call this from the main thread; the array is
+     * reused and overwritten by the next call.
+     */
     public SwerveModuleState[] getModuleStates() {
-        SwerveModuleState[] states = new SwerveModuleState[4];
-        for (int i = 0; i < 4; i++) {
-            var state = latestModuleStates[i];
-            states[i] =
-                    new SwerveModuleState(
-                            state.speedMetersPerSecond,
-                            Rotation2d.fromRadians(state.angle.getRadians()));
-        }
-        return states;
+        readSnapshot(getterSnapshot);
+        return getterSnapshot.moduleStates;
     }
 
+    /**
+     * Returns the latest module setpoints. Call this from the main thread; the array is reused and
+     * overwritten by the next call.
+     */
     public SwerveModuleState[] getModuleGoalStates() {
-        SwerveModuleState[] states = new SwerveModuleState[4];
-        for (int i = 0; i < 4; i++) {
-            var state = moduleGoalStates[i];
-            states[i] =
-                    new SwerveModuleState(
-                            state.speedMetersPerSecond,
-                            Rotation2d.fromRadians(state.angle.getRadians()));
-        }
-        return states;
+        readSnapshot(getterSnapshot);
+        return getterSnapshot.moduleGoalStates;
     }
 
     public double getVelocityX() {
-        return velocityXFiltered;
+        double velocityX;
+        int start;
+        do {
+            start = beginRead();
+            velocityX = publishedVelocityX;
+        } while (!endRead(start));
+        return velocityX;
     }
 
     public double getVelocityY() {
-        return velocityYFiltered;
+        double velocityY;
+        int start;
+        do {
+            start = beginRead();
+            velocityY = publishedVelocityY;
+        } while (!endRead(start));
+        return velocityY;
     }
 
     public double getAccelerationX() {
-        return accelXFiltered;
+        double accelerationX;
+        int start;
+        do {
+            start = beginRead();
+            accelerationX = publishedAccelerationX;
+        } while (!endRead(start));
+        return accelerationX;
     }
 
     public double getAccelerationY() {
-        return accelYFiltered;
+        double accelerationY;
+        int start;
+        do {
+            start = beginRead();
+            accelerationY = publishedAccelerationY;
+        } while (!endRead(start));
+        return accelerationY;
+    }
+
+    /** Returns the Kalman filter estimate of field relative x velocity */
+    public double getEstimatedVelocityX() {
+        double velocityX;
+        int start;
+        do {
+            start = beginRead();
+            velocityX = publishedEstimatedVelocityX;
+        } while (!endRead(start));
+        return velocityX;
+    }
+
+    /** Returns the Kalman filter estimate of field relative y velocity */
+    public double getEstimatedVelocityY() {
+        double velocityY;
+        int start;
+        do {
+            start = beginRead();
+            velocityY = publishedEstimatedVelocityY;
+        } while (!endRead(start));
+        return velocityY;
+    }
+
+    /** Returns the Kalman filter estimate of field relative x acceleration */
+    public double getEstimatedAccelerationX() {
+        double accelerationX;
+        int start;
+        do {
+            start = beginRead();
+            accelerationX = publishedEstimatedAccelerationX;
+        } while (!endRead(start));
+        return accelerationX;
+    }
+
+    /** Returns the Kalman filter estimate of field relative y acceleration */
+    public double getEstimatedAccelerationY() {
+        double accelerationY;
+        int start;
+        do {
+            start = beginRead();
+            accelerationY = publishedEstimatedAccelerationY;
+        } while (!endRead(start));
+        return accelerationY;
     }
 }
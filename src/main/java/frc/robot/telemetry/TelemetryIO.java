@@ -8,6 +8,7 @@ import org.littletonrobotics.junction.AutoLog;
 public interface TelemetryIO {
     @AutoLog
     public static class TelemetryIOInputs {
+        // Read by the 3d field views in advantagescope-configs/scope-layout
         public Pose3d pose3d = new Pose3d();
 
         public Pose2d pose2d = new Pose2d();
@@ -42,6 +43,7 @@ public interface TelemetryIO {
 
     public default void setRobotPose(Pose2d pose) {}
 
+    /* Telemetry reuses the module state arrays it passes in, so copy them rather than keep them */
     public default void setSwerveModuleStates(SwerveModuleState[] moduleStates) {}
 
     public default void setSwerveModuleGoalStates(SwerveModuleState[] moduleGoalStates) {}
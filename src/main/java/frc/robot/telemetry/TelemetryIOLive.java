@@ -7,20 +7,9 @@ import edu.wpi.first.math.kinematics.SwerveModuleState;
 public class TelemetryIOLive implements TelemetryIO {
     private Pose3d pose3d = new Pose3d();
     private Pose2d pose2d = new Pose2d();
-    private SwerveModuleState[] moduleStates =
-            new SwerveModuleState[] {
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState()
-            };
-    private SwerveModuleState[] moduleGoalStates =
-            new SwerveModuleState[] {
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState(),
-                new SwerveModuleState()
-            };
+    // Owned here and copied into, since Telemetry reuses the arrays it passes in
+    private final SwerveModuleState[] moduleStates = TelemetrySnapshot.newModuleStates();
+    private final SwerveModuleState[] moduleGoalStates = TelemetrySnapshot.newModuleStates();
 
     private double rotation = 0.0;
     private double rotationVelocity = 0.0;
@@ -43,12 +32,12 @@ public class TelemetryIOLive implements TelemetryIO {
 
     @Override
     public void setSwerveModuleStates(SwerveModuleState[] moduleStates) {
-        this.moduleStates = moduleStates;
+        TelemetrySnapshot.copyModuleStates(moduleStates, this.moduleStates);
     }
 
     @Override
     public void setSwerveModuleGoalStates(SwerveModuleState[] moduleGoalStates) {
-        this.moduleGoalStates = moduleGoalStates;
+        TelemetrySnapshot.copyModuleStates(moduleGoalStates, this.moduleGoalStates);
     }
 
     @Override
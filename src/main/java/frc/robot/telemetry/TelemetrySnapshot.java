@@ -0,0 +1,60 @@
+package frc.robot.telemetry;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * A consistent copy of the drive state published by {@link Telemetry}, filled in place by {@link
+ * Telemetry#readSnapshot(TelemetrySnapshot)} so reading it never allocates. Every field comes from
+ * the same odometry update.
+ */
+public class TelemetrySnapshot {
+    public static final int moduleCount = 4;
+
+    /** Time of the odometry update, in seconds */
+    public double timestamp = 0.0;
+
+    public Pose2d pose = new Pose2d();
+
+    public double velocityX = 0.0;
+    public double velocityY = 0.0;
+    public double accelerationX = 0.0;
+    public double accelerationY = 0.0;
+    public double rotationVelocity = 0.0;
+
+    // Kalman filter estimates of field relative motion, with their variances
+    public double estimatedVelocityX = 0.0;
+    public double estimatedVelocityY = 0.0;
+    public double estimatedAccelerationX = 0.0;
+    public double estimatedAccelerationY = 0.0;
+    public double velocityVarianceX = 0.0;
+    public double velocityVarianceY = 0.0;
+    public double accelerationVarianceX = 0.0;
+    public double accelerationVarianceY = 0.0;
+
+    // Reused state objects, the angles are shared immutable Rotation2ds from odometry
+    public final SwerveModuleState[] moduleStates = newModuleStates();
+    public final SwerveModuleState[] moduleGoalStates = newModuleStates();
+
+    // Preallocated states for one module set, to be copied into
+    static SwerveModuleState[] newModuleStates() {
+        SwerveModuleState[] states = new SwerveModuleState[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            states[i] = new SwerveModuleState();
+        }
+        return states;
+    }
+
+    /**
+     * Copies module speeds and angles between preallocated arrays without allocating
+     *
+     * @param from The states to copy
+     * @param to The states to overwrite
+     */
+    public static void copyModuleStates(SwerveModuleState[] from, SwerveModuleState[] to) {
+        for (int i = 0; i < moduleCount; i++) {
+            to[i].speedMetersPerSecond = from[i].speedMetersPerSecond;
+            to[i].angle = from[i].angle;
+        }
+    }
+}
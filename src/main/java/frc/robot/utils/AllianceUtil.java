@@ -4,19 +4,26 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import frc.robot.Constants.FieldConstants;
+import java.util.Optional;
 import org.littletonrobotics.junction.Logger;
 
 public class AllianceUtil {
 
     public static Translation2d getFieldToSpeaker() {
-        if (!DriverStation.getAlliance().isEmpty()) {
-            switch (DriverStation.getAlliance().get()) {
+        Translation2d fieldToSpeaker = getFieldToSpeaker(DriverStation.getAlliance());
+        Logger.recordOutput("Field/speaker", fieldToSpeaker);
+        return fieldToSpeaker;
+    }
+
+    /** Returns the speaker for an alliance that has already been read, without logging it */
+    public static Translation2d getFieldToSpeaker(Optional<Alliance> alliance) {
+        if (!alliance.isEmpty()) {
+            switch (alliance.get()) {
                 case Blue:
-                    Logger.recordOutput("Field/speaker", FieldConstants.fieldToBlueSpeaker);
                     return FieldConstants.fieldToBlueSpeaker;
                 case Red:
-                    Logger.recordOutput("Field/speaker", FieldConstants.fieldToRedSpeaker);
                     return FieldConstants.fieldToRedSpeaker;
             }
         }
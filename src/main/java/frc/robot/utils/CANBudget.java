@@ -0,0 +1,144 @@
+package frc.robot.utils;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.CANBus.CANBusStatus;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.CANDevices;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Declares how often each Phoenix 6 device sends the status signals we use. Devices list their
+ * signals with {@link #setFrequency(ParentDevice, double, BaseStatusSignal...)}, then {@link
+ * #optimize(ParentDevice...)} turns off every frame that wasn't listed, so the bus only carries
+ * what the code reads.
+ *
+ * <p>Once a second, {@link #logUtilization()} records each bus's measured utilization next to an
+ * estimate from the budget under CAN/&lt;bus&gt;/. The estimate counts every signal as its own
+ * frame, so it is an upper bound when a device packs several signals into one frame. The number
+ * of repeated commands skipped by {@link RedundantCommandFilter}s and the state of the {@link
+ * ConfigExecutor} queue are logged alongside.
+ *
+ * <p>Devices can be budgeted from any thread, such as while {@link StartupConfigurator} sets them
+ * up in parallel. Utilization is only logged from the main robot thread.
+ */
+public class CANBudget {
+    private static final IdentityHashMap<BaseStatusSignal, Budget> budgets =
+            new IdentityHashMap<BaseStatusSignal, Budget>();
+    private static final HashMap<String, Double> framesPerSecond = new HashMap<String, Double>();
+    private static final List<String> buses = new ArrayList<String>();
+
+    private static double lastLogTime = 0.0;
+
+    /**
+     * This method is used to set the update frequency of signals on one device. Setting a signal
+     * again replaces its budget.
+     *
+     * @param device The device the signals come from
+     * @param frequencyHz How often the device should send them
+     * @param signals The signals to send
+     * @return {@code true} if the device accepted the rates
+     */
+    public static boolean setFrequency(
+            ParentDevice device, double frequencyHz, BaseStatusSignal... signals) {
+        StatusCode status = BaseStatusSignal.setUpdateFrequencyForAll(frequencyHz, signals);
+        if (!status.isOK()) {
+            DriverStation.reportWarning(
+                    "Failed to set status signal rates on device "
+                            + device.getDeviceID()
+                            + ": "
+                            + status.getName(),
+                    false);
+        }
+
+        // Devices built without a bus name are on the roboRIO's bus
+        String bus = device.getNetwork().isEmpty() ? CANDevices.rioBusName : device.getNetwork();
+        record(bus, frequencyHz, signals);
+        return status.isOK();
+    }
+
+    // Only the bookkeeping is locked, so devices configured in parallel don't wait on each other
+    private static synchronized void record(
+            String bus, double frequencyHz, BaseStatusSignal... signals) {
+        if (!framesPerSecond.containsKey(bus)) {
+            framesPerSecond.put(bus, 0.0);
+            buses.add(bus);
+        }
+        for (BaseStatusSignal signal : signals) {
+            Budget previous = budgets.put(signal, new Budget(bus, frequencyHz));
+            if (previous != null) {
+                framesPerSecond.put(
+                        previous.bus, framesPerSecond.get(previous.bus) - previous.frequencyHz);
+            }
+            framesPerSecond.put(bus, framesPerSecond.get(bus) + frequencyHz);
+        }
+    }
+
+    /**
+     * This method is used to turn off every signal on the devices that doesn't have a budget. Call
+     * it after all of a device's signals have been given a frequency.
+     *
+     * @param devices The devices to optimize
+     * @return {@code true} if every device accepted it
+     */
+    public static boolean optimize(ParentDevice... devices) {
+        boolean ok = true;
+        for (ParentDevice device : devices) {
+            StatusCode status = device.optimizeBusUtilization();
+            if (!status.isOK()) {
+                DriverStation.reportWarning(
+                        "Failed to optimize bus utilization of device "
+                                + device.getDeviceID()
+                                + ": "
+                                + status.getName(),
+                        false);
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    /** This method is used to log measured and estimated bus utilization, once a second */
+    public static synchronized void logUtilization() {
+        double now = Timer.getFPGATimestamp();
+        if (now - lastLogTime < CANDevices.utilizationLogPeriodSeconds) {
+            return;
+        }
+        lastLogTime = now;
+
+        Logger.recordOutput("CAN/suppressedCommands", RedundantCommandFilter.getSuppressedCount());
+        Logger.recordOutput("CAN/pendingConfigs", ConfigExecutor.getPendingCount());
+        Logger.recordOutput("CAN/failedConfigs", ConfigExecutor.getFailedCount());
+
+        for (String bus : buses) {
+            double estimated =
+                    framesPerSecond.get(bus)
+                            * CANDevices.estimatedFrameBits
+                            / CANDevices.busBitsPerSecond;
+            Logger.recordOutput("CAN/" + bus + "/estimatedUtilization", estimated);
+
+            CANBusStatus status = CANBus.getStatus(bus);
+            Logger.recordOutput("CAN/" + bus + "/utilization", status.BusUtilization);
+            Logger.recordOutput("CAN/" + bus + "/busOffCount", status.BusOffCount);
+            Logger.recordOutput("CAN/" + bus + "/txFullCount", status.TxFullCount);
+            Logger.recordOutput("CAN/" + bus + "/statusOk", status.Status.isOK());
+        }
+    }
+
+    private static class Budget {
+        private final String bus;
+        private final double frequencyHz;
+
+        private Budget(String bus, double frequencyHz) {
+            this.bus = bus;
+            this.frequencyHz = frequencyHz;
+        }
+    }
+}
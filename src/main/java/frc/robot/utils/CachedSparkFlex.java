@@ -0,0 +1,111 @@
+package frc.robot.utils;
+
+import com.revrobotics.CANSparkBase.ControlType;
+import com.revrobotics.CANSparkBase.FaultID;
+import com.revrobotics.CANSparkBase.IdleMode;
+import com.revrobotics.CANSparkFlex;
+import com.revrobotics.REVLibError;
+import frc.robot.Constants.CANDevices;
+
+/**
+ * Sends setpoint, idle mode and feedforward changes to a SPARK Flex only when they differ from
+ * what was last sent. Setpoints are also resent once the keep-alive period has passed, and idle
+ * mode and feedforward once the controller reports a reset. Everything else goes through {@link
+ * #getMotor()}.
+ */
+public class CachedSparkFlex {
+    private final CANSparkFlex motor;
+
+    private final RedundantCommandFilter referenceFilter =
+            new RedundantCommandFilter(CANDevices.controlKeepAliveSeconds);
+    private final RedundantCommandFilter idleModeFilter = new RedundantCommandFilter();
+    private final RedundantCommandFilter feedforwardFilter = new RedundantCommandFilter();
+
+    // The sticky reset fault as last read, a reset shows up as it turning on
+    private boolean resetFaultSeen;
+
+    public CachedSparkFlex(CANSparkFlex motor) {
+        this.motor = motor;
+        resetFaultSeen = motor.getStickyFault(FaultID.kHasReset);
+    }
+
+    public CANSparkFlex getMotor() {
+        return motor;
+    }
+
+    /**
+     * This method is used to command an output voltage
+     *
+     * @param volts The voltage to apply
+     */
+    public void setVoltage(double volts) {
+        setReference(volts, ControlType.kVoltage);
+    }
+
+    /**
+     * This method is used to set the closed loop setpoint
+     *
+     * @param value The setpoint, in the units of the control type
+     * @param controlType The kind of control to run
+     * @return The error from sending the setpoint, {@link REVLibError#kOk} if it was skipped
+     */
+    public REVLibError setReference(double value, ControlType controlType) {
+        if (!referenceFilter.shouldSend(controlType, value)) {
+            return REVLibError.kOk;
+        }
+
+        REVLibError error = motor.getPIDController().setReference(value, controlType);
+        if (error != REVLibError.kOk) {
+            referenceFilter.invalidate();
+        }
+        return error;
+    }
+
+    /**
+     * This method is used to set what the motor does with no output
+     *
+     * @param mode Brake or coast
+     */
+    public void setIdleMode(IdleMode mode) {
+        checkForReset();
+        if (!idleModeFilter.shouldSend(mode, 0.0)) {
+            return;
+        }
+
+        if (motor.setIdleMode(mode) != REVLibError.kOk) {
+            idleModeFilter.invalidate();
+        }
+    }
+
+    /**
+     * This method is used to set the closed loop feedforward gain
+     *
+     * @param ff The feedforward gain
+     */
+    public void setFF(double ff) {
+        checkForReset();
+        if (!feedforwardFilter.shouldSend(ff)) {
+            return;
+        }
+
+        if (motor.getPIDController().setFF(ff) != REVLibError.kOk) {
+            feedforwardFilter.invalidate();
+        }
+    }
+
+    /*
+     * Settings that weren't burned to flash are lost when the controller resets. The sticky reset
+     * fault is read from the last status frame, so checking it costs no CAN traffic. It isn't
+     * cleared here, since REVLib can only clear every sticky fault at once and the others are kept
+     * for diagnosing the reset, so a reset is seen when the fault turns on. Once it is on, another
+     * reset is only seen after the sticky faults are cleared, such as from the REV Hardware Client.
+     */
+    private void checkForReset() {
+        boolean resetFault = motor.getStickyFault(FaultID.kHasReset);
+        if (resetFault && !resetFaultSeen) {
+            idleModeFilter.invalidate();
+            feedforwardFilter.invalidate();
+        }
+        resetFaultSeen = resetFault;
+    }
+}
@@ -0,0 +1,70 @@
+package frc.robot.utils;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.controls.ControlRequest;
+import com.ctre.phoenix6.controls.VoltageOut;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+/**
+ * Sends neutral mode changes to a TalonFX only when they differ from what was last sent, or when
+ * the motor has reset since. Everything else goes through {@link #getMotor()}.
+ *
+ * <p>Control requests are always passed through. Phoenix resends the active request on its own,
+ * so skipping a repeated one would only save the call into the native library, not any CAN
+ * traffic. The voltage request is reused so that commanding a voltage doesn't allocate.
+ */
+public class CachedTalonFX {
+    private final TalonFX motor;
+
+    private final VoltageOut voltageRequest = new VoltageOut(0.0);
+
+    private final RedundantCommandFilter neutralModeFilter = new RedundantCommandFilter();
+
+    public CachedTalonFX(TalonFX motor) {
+        this.motor = motor;
+    }
+
+    public TalonFX getMotor() {
+        return motor;
+    }
+
+    /**
+     * This method is used to command an output voltage
+     *
+     * @param volts The voltage to apply
+     */
+    public void setVoltage(double volts) {
+        motor.setControl(voltageRequest.withOutput(volts));
+    }
+
+    /**
+     * This method is used to send a control request. Reuse one request object per kind of control
+     * so that commanding it doesn't allocate.
+     *
+     * @param request The request, already holding the setpoint
+     */
+    public void setControl(ControlRequest request) {
+        motor.setControl(request);
+    }
+
+    /**
+     * This method is used to set what the motor does with no output
+     *
+     * @param mode Brake or coast
+     */
+    public void setNeutralMode(NeutralModeValue mode) {
+        // A reset motor has lost whatever was last sent
+        if (motor.hasResetOccurred()) {
+            neutralModeFilter.invalidate();
+        }
+        if (!neutralModeFilter.shouldSend(mode, 0.0)) {
+            return;
+        }
+
+        StatusCode status = motor.setNeutralMode(mode);
+        if (!status.isOK()) {
+            neutralModeFilter.invalidate();
+        }
+    }
+}
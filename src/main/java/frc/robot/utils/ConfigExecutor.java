@@ -0,0 +1,75 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.CANDevices;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Applies device config changes on a background thread, so a blocking apply made while the robot
+ * is running can't overrun the loop. Changes run one at a time in the order they were submitted,
+ * so two changes to the same device always land in order, and each is retried a few times before
+ * it is reported as failed.
+ *
+ * <p>The apply action runs on the config thread, so it should only touch the device and objects
+ * nothing else uses.
+ */
+public class ConfigExecutor {
+    private static final ExecutorService executor =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "ConfigExecutor");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * This method is used to queue a config change
+     *
+     * @param name What is being changed, for the warning if it fails
+     * @param apply Applies the change, returning {@code true} if the device accepted it
+     * @return A future that completes with whether the change was applied
+     */
+    public static CompletableFuture<Boolean> submit(String name, BooleanSupplier apply) {
+        pending.incrementAndGet();
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        for (int attempt = 0; attempt < CANDevices.configApplyAttempts; attempt++) {
+                            if (apply.getAsBoolean()) {
+                                return true;
+                            }
+                        }
+
+                        failed.incrementAndGet();
+                        DriverStation.reportWarning(
+                                "Failed to apply "
+                                        + name
+                                        + " after "
+                                        + CANDevices.configApplyAttempts
+                                        + " attempts",
+                                false);
+                        return false;
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                },
+                executor);
+    }
+
+    /** Returns how many submitted changes haven't finished yet */
+    public static int getPendingCount() {
+        return pending.get();
+    }
+
+    /** Returns how many changes have failed every attempt since the robot started */
+    public static int getFailedCount() {
+        return failed.get();
+    }
+}
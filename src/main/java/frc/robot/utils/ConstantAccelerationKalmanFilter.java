@@ -0,0 +1,186 @@
+package frc.robot.utils;
+
+/**
+ * Kalman filter for one axis of motion, tracking position, velocity and acceleration under a
+ * constant acceleration model driven by random jerk. Position and velocity can be measured
+ * separately and in any order. Everything is kept in scalar fields so predict and correct never
+ * allocate, which makes it safe to run on the odometry thread.
+ */
+public class ConstantAccelerationKalmanFilter {
+    private final double jerkVariance;
+
+    private double position = 0.0;
+    private double velocity = 0.0;
+    private double acceleration = 0.0;
+
+    // Symmetric covariance of (position, velocity, acceleration)
+    private double pp;
+    private double pv;
+    private double pa;
+    private double vv;
+    private double va;
+    private double aa;
+
+    /**
+     * @param jerkStdDev Standard deviation of the unmodeled jerk, in units per second cubed. Larger
+     *     values trust measurements more and track changes in acceleration faster.
+     */
+    public ConstantAccelerationKalmanFilter(double jerkStdDev) {
+        this.jerkVariance = jerkStdDev * jerkStdDev;
+        reset(0.0, 1.0, 1.0, 1.0);
+    }
+
+    /**
+     * This method is used to restart the filter at a known position with unknown motion
+     *
+     * @param position The position to start at
+     * @param positionVariance How uncertain the position is
+     * @param velocityVariance How uncertain the (zero) starting velocity is
+     * @param accelerationVariance How uncertain the (zero) starting acceleration is
+     */
+    public void reset(
+            double position,
+            double positionVariance,
+            double velocityVariance,
+            double accelerationVariance) {
+        this.position = position;
+        velocity = 0.0;
+        acceleration = 0.0;
+
+        pp = positionVariance;
+        vv = velocityVariance;
+        aa = accelerationVariance;
+        pv = 0.0;
+        pa = 0.0;
+        va = 0.0;
+    }
+
+    /**
+     * This method is used to move a position that jumped, as when odometry is reseeded or corrected
+     * by vision, without treating the jump as motion
+     *
+     * @param position The new position
+     */
+    public void setPosition(double position) {
+        this.position = position;
+    }
+
+    /**
+     * This method is used to advance the state by a time step
+     *
+     * @param dt Time since the last predict in seconds
+     */
+    public void predict(double dt) {
+        double dt2 = dt * dt;
+        double dt3 = dt2 * dt;
+
+        position += velocity * dt + 0.5 * acceleration * dt2;
+        velocity += acceleration * dt;
+
+        // P = F P F^T + Q, with F = [1 dt dt^2/2; 0 1 dt; 0 0 1] written out term by term
+        double halfDt2 = 0.5 * dt2;
+        double newPp =
+                pp
+                        + 2.0 * dt * pv
+                        + dt2 * pa
+                        + dt2 * vv
+                        + dt3 * va
+                        + halfDt2 * halfDt2 * aa;
+        double newPv = pv + dt * pa + dt * vv + 1.5 * dt2 * va + 0.5 * dt3 * aa;
+        double newPa = pa + dt * va + halfDt2 * aa;
+        double newVv = vv + 2.0 * dt * va + dt2 * aa;
+        double newVa = va + dt * aa;
+
+        // White jerk process noise
+        double dt4 = dt3 * dt;
+        double dt5 = dt4 * dt;
+        pp = newPp + jerkVariance * dt5 / 20.0;
+        pv = newPv + jerkVariance * dt4 / 8.0;
+        pa = newPa + jerkVariance * dt3 / 6.0;
+        vv = newVv + jerkVariance * dt3 / 3.0;
+        va = newVa + jerkVariance * dt2 / 2.0;
+        aa += jerkVariance * dt;
+    }
+
+    /**
+     * This method is used to fuse a position measurement
+     *
+     * @param measuredPosition The measured position
+     * @param variance The variance of the measurement
+     */
+    public void correctPosition(double measuredPosition, double variance) {
+        double innovation = measuredPosition - position;
+        double s = pp + variance;
+        double kp = pp / s;
+        double kv = pv / s;
+        double ka = pa / s;
+
+        position += kp * innovation;
+        velocity += kv * innovation;
+        acceleration += ka * innovation;
+
+        // P = (I - K H) P, with H selecting position
+        double oldPp = pp;
+        double oldPv = pv;
+        double oldPa = pa;
+        pp -= kp * oldPp;
+        pv -= kp * oldPv;
+        pa -= kp * oldPa;
+        vv -= kv * oldPv;
+        va -= kv * oldPa;
+        aa -= ka * oldPa;
+    }
+
+    /**
+     * This method is used to fuse a velocity measurement
+     *
+     * @param measuredVelocity The measured velocity
+     * @param variance The variance of the measurement
+     */
+    public void correctVelocity(double measuredVelocity, double variance) {
+        double innovation = measuredVelocity - velocity;
+        double s = vv + variance;
+        double kp = pv / s;
+        double kv = vv / s;
+        double ka = va / s;
+
+        position += kp * innovation;
+        velocity += kv * innovation;
+        acceleration += ka * innovation;
+
+        // P = (I - K H) P, with H selecting velocity
+        double oldPv = pv;
+        double oldVv = vv;
+        double oldVa = va;
+        pp -= kp * oldPv;
+        pv -= kp * oldVv;
+        pa -= kp * oldVa;
+        vv -= kv * oldVv;
+        va -= kv * oldVa;
+        aa -= ka * oldVa;
+    }
+
+    public double getPosition() {
+        return position;
+    }
+
+    public double getVelocity() {
+        return velocity;
+    }
+
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    public double getPositionVariance() {
+        return pp;
+    }
+
+    public double getVelocityVariance() {
+        return vv;
+    }
+
+    public double getAccelerationVariance() {
+        return aa;
+    }
+}
@@ -1,30 +1,9 @@
 package frc.robot.utils;
 
-import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.geometry.Pose2d;
-import java.awt.geom.Line2D;
+import frc.robot.Constants.FieldConstants;
 
 public class FieldFinder {
-    private class FieldLocations2024 {
-        public static final double STAGE_RED_NEAR_SIDE_X = 13.6; // TODO: Make these less arbitrary
-        public static final double STAGE_RED_NEAR_SIDE_Y = 4.0;
-        public static final double STAGE_RED_LEFT_SIDE_X = 10.8;
-        public static final double STAGE_RED_LEFT_SIDE_Y = 2.2;
-        public static final double STAGE_RED_RIGHT_SIDE_X = 10.8;
-        public static final double STAGE_RED_RIGHT_SIDE_Y = 5.8;
-
-        public static final double STAGE_BLUE_NEAR_SIDE_X = 3.0;
-        public static final double STAGE_BLUE_NEAR_SIDE_Y = 4.0;
-        public static final double STAGE_BLUE_LEFT_SIDE_X = 5.6;
-        public static final double STAGE_BLUE_LEFT_SIDE_Y = 5.8;
-        public static final double STAGE_BLUE_RIGHT_SIDE_X = 5.6;
-        public static final double STAGE_BLUE_RIGHT_SIDE_Y = 2.2;
-
-        public static final double WING_RED_END_X = 12; // Actual 10.8
-
-        public static final double WING_BLUE_END_X = 4.6; // Actual 5.8
-    }
-
     public enum FieldLocations {
         RED_STAGE,
         BLUE_STAGE,
@@ -33,6 +12,30 @@ public class FieldFinder {
         MIDDLE
     }
 
+    // Stage and wing zones from the deploy file, or the built-in ones if it couldn't be loaded.
+    // They must be convex for the grid and footprint tests below.
+    private static final FieldZones zones = FieldConstants.fieldZones;
+    private static final int redStage = zones.getZoneId("RED_STAGE");
+    private static final int blueStage = zones.getZoneId("BLUE_STAGE");
+    private static final int redWing = zones.getZoneId("RED_WING");
+    private static final int blueWing = zones.getZoneId("BLUE_WING");
+
+    // Vertices packed as x1, y1, x2, y2, ... for the footprint test
+    private static final double[] redStagePolygon = zones.getPolygon(redStage);
+    private static final double[] blueStagePolygon = zones.getPolygon(blueStage);
+    private static final double redStageArea = polygonArea(redStagePolygon);
+    private static final double blueStageArea = polygonArea(blueStagePolygon);
+
+    // Field rasterized into cells, each holding the ordinal of its FieldLocations or BOUNDARY when
+    // the cell straddles a region edge and has to be resolved exactly
+    private static final byte BOUNDARY = -1;
+    private static final double cellSize = FieldConstants.fieldFinderCellSizeMeters;
+    private static final double inverseCellSize = 1.0 / cellSize;
+    private static final int gridColumns = (int) Math.ceil(FieldConstants.lengthM / cellSize);
+    private static final int gridRows = (int) Math.ceil(FieldConstants.widthM / cellSize);
+    private static final FieldLocations[] locations = FieldLocations.values();
+    private static final byte[] locationGrid = buildLocationGrid();
+
     /**
      * This method is used to determine where the robot is on the field
      *
@@ -41,30 +44,28 @@ public class FieldFinder {
      * @return The location on the field
      */
     public static FieldLocations whereAmI(double x, double y) {
+        if (x >= 0.0 && y >= 0.0) {
+            int column = (int) (x * inverseCellSize);
+            int row = (int) (y * inverseCellSize);
+            if (column < gridColumns && row < gridRows) {
+                byte location = locationGrid[row * gridColumns + column];
+                if (location != BOUNDARY) {
+                    return locations[location];
+                }
+            }
+        }
+
+        return whereAmIExact(x, y);
+    }
 
-        if (inTheTriangle(
-                x,
-                y,
-                FieldLocations2024.STAGE_RED_NEAR_SIDE_X,
-                FieldLocations2024.STAGE_RED_NEAR_SIDE_Y,
-                FieldLocations2024.STAGE_RED_LEFT_SIDE_X,
-                FieldLocations2024.STAGE_RED_LEFT_SIDE_Y,
-                FieldLocations2024.STAGE_RED_RIGHT_SIDE_X,
-                FieldLocations2024.STAGE_RED_RIGHT_SIDE_Y)) {
+    private static FieldLocations whereAmIExact(double x, double y) {
+        if (inStage(redStagePolygon, redStageArea, x, y)) {
             return FieldLocations.RED_STAGE;
-        } else if (inTheTriangle(
-                x,
-                y,
-                FieldLocations2024.STAGE_BLUE_NEAR_SIDE_X,
-                FieldLocations2024.STAGE_BLUE_NEAR_SIDE_Y,
-                FieldLocations2024.STAGE_BLUE_LEFT_SIDE_X,
-                FieldLocations2024.STAGE_BLUE_LEFT_SIDE_Y,
-                FieldLocations2024.STAGE_BLUE_RIGHT_SIDE_X,
-                FieldLocations2024.STAGE_BLUE_RIGHT_SIDE_Y)) {
+        } else if (inStage(blueStagePolygon, blueStageArea, x, y)) {
             return FieldLocations.BLUE_STAGE;
-        } else if (x > FieldLocations2024.WING_RED_END_X) {
+        } else if (zones.isInZone(redWing, x, y)) {
             return FieldLocations.RED_WING;
-        } else if (x < FieldLocations2024.WING_BLUE_END_X) {
+        } else if (zones.isInZone(blueWing, x, y)) {
             return FieldLocations.BLUE_WING;
         } else {
             return FieldLocations.MIDDLE;
@@ -95,75 +96,342 @@ public class FieldFinder {
             double x, double y, double dx, double dy, FieldLocations location) {
         switch (location) {
             case RED_STAGE:
-                return willIHitTriangle(
-                        x,
-                        y,
-                        dx,
-                        dy,
-                        FieldLocations2024.STAGE_RED_NEAR_SIDE_X,
-                        FieldLocations2024.STAGE_RED_NEAR_SIDE_Y,
-                        FieldLocations2024.STAGE_RED_LEFT_SIDE_X,
-                        FieldLocations2024.STAGE_RED_LEFT_SIDE_Y,
-                        FieldLocations2024.STAGE_RED_RIGHT_SIDE_X,
-                        FieldLocations2024.STAGE_RED_RIGHT_SIDE_Y);
+                return inStage(redStagePolygon, redStageArea, x, y)
+                        || zones.segmentCrossesZone(redStage, x, y, x + dx, y + dy);
             case BLUE_STAGE:
-                return willIHitTriangle(
-                        x,
-                        y,
-                        dx,
-                        dy,
-                        FieldLocations2024.STAGE_BLUE_NEAR_SIDE_X,
-                        FieldLocations2024.STAGE_BLUE_NEAR_SIDE_Y,
-                        FieldLocations2024.STAGE_BLUE_LEFT_SIDE_X,
-                        FieldLocations2024.STAGE_BLUE_LEFT_SIDE_Y,
-                        FieldLocations2024.STAGE_BLUE_RIGHT_SIDE_X,
-                        FieldLocations2024.STAGE_BLUE_RIGHT_SIDE_Y);
+                return inStage(blueStagePolygon, blueStageArea, x, y)
+                        || zones.segmentCrossesZone(blueStage, x, y, x + dx, y + dy);
             case RED_WING:
-                return x > FieldLocations2024.WING_RED_END_X
-                        || x + dx > FieldLocations2024.WING_RED_END_X;
+                return zones.segmentCrossesZone(redWing, x, y, x + dx, y + dy);
             case BLUE_WING:
-                return x < FieldLocations2024.WING_BLUE_END_X
-                        || x + dx < FieldLocations2024.WING_BLUE_END_X;
+                return zones.segmentCrossesZone(blueWing, x, y, x + dx, y + dy);
             case MIDDLE:
-                return (x < FieldLocations2024.WING_RED_END_X
-                                || x + dx < FieldLocations2024.WING_RED_END_X)
-                        && (x > FieldLocations2024.WING_BLUE_END_X
-                                || x + dx > FieldLocations2024.WING_BLUE_END_X);
+                // The wings are convex, so the move stays in one only if both ends are in it
+                return !(zones.isInZone(redWing, x, y) && zones.isInZone(redWing, x + dx, y + dy))
+                        && !(zones.isInZone(blueWing, x, y)
+                                && zones.isInZone(blueWing, x + dx, y + dy));
             default:
                 return false;
         }
     }
 
-    private static boolean willIHitTriangle(
+    /*
+     * Area test for a convex stage: the triangles from the point to each edge add up to the
+     * stage's area only when the point is inside, and to more the further outside it is. Points
+     * whose excess is within the tolerance count as on the stage, as in the original 2024 test.
+     */
+    private static boolean inStage(double[] polygon, double area, double x, double y) {
+        if (polygon.length == 0) {
+            return false;
+        }
+
+        double fanArea = 0.0;
+        for (int i = 0; i < polygon.length; i += 2) {
+            int next = (i + 2) % polygon.length;
+            fanArea +=
+                    0.5
+                            * Math.abs(
+                                    (polygon[i] - x) * (polygon[next + 1] - y)
+                                            - (polygon[next] - x) * (polygon[i + 1] - y));
+        }
+        return Math.abs(fanArea - area) < FieldConstants.stageAreaTolerance;
+    }
+
+    private static double polygonArea(double[] polygon) {
+        return 0.5 * Math.abs(signedTwiceArea(polygon));
+    }
+
+    // Positive when the vertices go counterclockwise
+    private static double signedTwiceArea(double[] polygon) {
+        double twiceArea = 0.0;
+        for (int i = 0; i < polygon.length; i += 2) {
+            int next = (i + 2) % polygon.length;
+            twiceArea += polygon[i] * polygon[next + 1] - polygon[next] * polygon[i + 1];
+        }
+        return twiceArea;
+    }
+
+    /*
+     * Pushes each edge of a convex stage out by the furthest a point past it can be and still pass
+     * the area test. A point past an edge adds the edge length times its distance to the excess, so
+     * the result contains every point inStage accepts, and the grid can use it to rule cells out.
+     */
+    private static double[] stageOuterBound(double[] polygon) {
+        int count = polygon.length / 2;
+        double winding = signedTwiceArea(polygon) >= 0.0 ? 1.0 : -1.0;
+
+        // Each edge's outward offset line, as normalX * x + normalY * y = offset
+        double[] normalX = new double[count];
+        double[] normalY = new double[count];
+        double[] offset = new double[count];
+        for (int v = 0; v < count; v++) {
+            int next = (v + 1) % count;
+            double edgeX = polygon[2 * next] - polygon[2 * v];
+            double edgeY = polygon[2 * next + 1] - polygon[2 * v + 1];
+            double length = Math.hypot(edgeX, edgeY);
+            normalX[v] = winding * edgeY / length;
+            normalY[v] = -winding * edgeX / length;
+            offset[v] =
+                    normalX[v] * polygon[2 * v]
+                            + normalY[v] * polygon[2 * v + 1]
+                            + FieldConstants.stageAreaTolerance / length;
+        }
+
+        // Each vertex moves to where the offset lines of its two edges meet
+        double[] grown = new double[polygon.length];
+        for (int v = 0; v < count; v++) {
+            int previous = (v + count - 1) % count;
+            double determinant = normalX[previous] * normalY[v] - normalY[previous] * normalX[v];
+            grown[2 * v] =
+                    (offset[previous] * normalY[v] - normalY[previous] * offset[v]) / determinant;
+            grown[2 * v + 1] =
+                    (normalX[previous] * offset[v] - offset[previous] * normalX[v]) / determinant;
+        }
+        return grown;
+    }
+
+    // Segment intersection, counting touching and collinear overlap, so AWT's Line2D isn't needed
+    static boolean segmentsIntersect(
+            double ax,
+            double ay,
+            double bx,
+            double by,
+            double cx,
+            double cy,
+            double dx,
+            double dy) {
+        double o1 = orientation(ax, ay, bx, by, cx, cy);
+        double o2 = orientation(ax, ay, bx, by, dx, dy);
+        double o3 = orientation(cx, cy, dx, dy, ax, ay);
+        double o4 = orientation(cx, cy, dx, dy, bx, by);
+
+        if (((o1 > 0 && o2 < 0) || (o1 < 0 && o2 > 0))
+                && ((o3 > 0 && o4 < 0) || (o3 < 0 && o4 > 0))) {
+            return true;
+        }
+
+        return (o1 == 0 && onSegment(ax, ay, bx, by, cx, cy))
+                || (o2 == 0 && onSegment(ax, ay, bx, by, dx, dy))
+                || (o3 == 0 && onSegment(cx, cy, dx, dy, ax, ay))
+                || (o4 == 0 && onSegment(cx, cy, dx, dy, bx, by));
+    }
+
+    private static double orientation(
+            double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    // Whether a point already known to be collinear with a segment lies within it
+    private static boolean onSegment(
+            double ax, double ay, double bx, double by, double px, double py) {
+        return px >= Math.min(ax, bx)
+                && px <= Math.max(ax, bx)
+                && py >= Math.min(ay, by)
+                && py <= Math.max(ay, by);
+    }
+
+    /**
+     * This method is used to determine if the robot's bumpers will touch either stage while the
+     * robot moves from its current pose by (dx, dy) without turning
+     *
+     * @param x The x position of the robot
+     * @param y The y position of the robot
+     * @param heading The heading of the robot in radians
+     * @param dx The change in, or delta, x of the robot (not to be confused with x velocity)
+     * @param dy The change in, or delta, y of the robot (not to be confused with y velocity)
+     * @param halfLength Half the bumper length, along the robot's heading
+     * @param halfWidth Half the bumper width, across the robot's heading
+     * @return {@code true} if the swept footprint overlaps either stage
+     */
+    public static boolean willIHitStage(
+            double x,
+            double y,
+            double heading,
+            double dx,
+            double dy,
+            double halfLength,
+            double halfWidth) {
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+
+        // Half extents of the rectangle along and across the heading
+        double ux = cos * halfLength;
+        double uy = sin * halfLength;
+        double vx = -sin * halfWidth;
+        double vy = cos * halfWidth;
+
+        return sweptRectangleHitsPolygon(x, y, ux, uy, vx, vy, dx, dy, redStagePolygon)
+                || sweptRectangleHitsPolygon(x, y, ux, uy, vx, vy, dx, dy, blueStagePolygon);
+    }
+
+    /*
+     * Separating axis test between a convex polygon and the area a rectangle covers as it
+     * translates by (dx, dy). That area is the convex hull of the rectangle at both ends of the
+     * move, whose edges are parallel to the rectangle's sides or to the move, so those normals plus
+     * the polygon's edge normals are every axis that could separate them. A zero length move gives
+     * a zero axis, which never separates anything and so is harmless.
+     */
+    private static boolean sweptRectangleHitsPolygon(
+            double x,
+            double y,
+            double ux,
+            double uy,
+            double vx,
+            double vy,
+            double dx,
+            double dy,
+            double[] polygon) {
+        if (polygon.length == 0
+                || separatedOnAxis(ux, uy, x, y, ux, uy, vx, vy, dx, dy, polygon)
+                || separatedOnAxis(vx, vy, x, y, ux, uy, vx, vy, dx, dy, polygon)
+                || separatedOnAxis(-dy, dx, x, y, ux, uy, vx, vy, dx, dy, polygon)) {
+            return false;
+        }
+
+        for (int i = 0; i < polygon.length; i += 2) {
+            int next = (i + 2) % polygon.length;
+            double axisX = polygon[i + 1] - polygon[next + 1];
+            double axisY = polygon[next] - polygon[i];
+            if (separatedOnAxis(axisX, axisY, x, y, ux, uy, vx, vy, dx, dy, polygon)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean separatedOnAxis(
+            double axisX,
+            double axisY,
             double x,
             double y,
+            double ux,
+            double uy,
+            double vx,
+            double vy,
             double dx,
             double dy,
-            double x1,
-            double y1,
-            double x2,
-            double y2,
-            double x3,
-            double y3) {
-        return inTheTriangle(x, y, x1, y1, x2, y2, x3, y3)
-                || Line2D.linesIntersect(x, y, x + dx, y + dy, x1, y1, x2, y2)
-                || Line2D.linesIntersect(x, y, x + dx, y + dy, x2, y2, x3, y3)
-                || Line2D.linesIntersect(x, y, x + dx, y + dy, x3, y3, x1, y1);
+            double[] polygon) {
+        // Rectangle's projection at the start of the move, stretched to cover the end
+        double radius = Math.abs(ux * axisX + uy * axisY) + Math.abs(vx * axisX + vy * axisY);
+        double start = x * axisX + y * axisY;
+        double end = start + dx * axisX + dy * axisY;
+        double sweptMin = Math.min(start, end) - radius;
+        double sweptMax = Math.max(start, end) + radius;
+
+        double polygonMin = Double.POSITIVE_INFINITY;
+        double polygonMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < polygon.length; i += 2) {
+            double projection = polygon[i] * axisX + polygon[i + 1] * axisY;
+            polygonMin = Math.min(polygonMin, projection);
+            polygonMax = Math.max(polygonMax, projection);
+        }
+
+        return sweptMax < polygonMin || polygonMax < sweptMin;
     }
 
-    private static boolean inTheTriangle(
-            double x, double y, double x1, double y1, double x2, double y2, double x3, double y3) {
-        double area = areaOfTriangle(x1, y1, x2, y2, x3, y3);
+    private static byte[] buildLocationGrid() {
+        int[] cellZones = {redStage, blueStage, redWing, blueWing};
+        double[][] cellPolygons = new double[cellZones.length][];
+        for (int i = 0; i < cellZones.length; i++) {
+            cellPolygons[i] = zones.getPolygon(cellZones[i]);
+        }
+        // A cell near a stage can still be on it by the area test's tolerance
+        cellPolygons[0] = stageOuterBound(cellPolygons[0]);
+        cellPolygons[1] = stageOuterBound(cellPolygons[1]);
 
-        double a1 = areaOfTriangle(x, y, x2, y2, x3, y3);
-        double a2 = areaOfTriangle(x1, y1, x, y, x3, y3);
-        double a3 = areaOfTriangle(x1, y1, x2, y2, x, y);
+        byte[] grid = new byte[gridColumns * gridRows];
+        for (int row = 0; row < gridRows; row++) {
+            for (int column = 0; column < gridColumns; column++) {
+                grid[row * gridColumns + column] =
+                        classifyCell(column, row, cellZones, cellPolygons);
+            }
+        }
+        return grid;
+    }
 
-        return MathUtil.isNear(area, a1 + a2 + a3, 0.05);
+    /*
+     * A cell only gets a location if every point in it is guaranteed to give that location from
+     * whereAmIExact. The cell is padded slightly so that rounding in the lookup can't land a point
+     * just outside the cell it was classified for. Zones are checked in the same order as
+     * whereAmIExact, so a cell fully inside one zone only needs to be clear of the zones before it.
+     */
+    private static byte classifyCell(
+            int column, int row, int[] cellZones, double[][] cellPolygons) {
+        final double pad = 1e-6;
+        double minX = column * cellSize - pad;
+        double maxX = (column + 1) * cellSize + pad;
+        double minY = row * cellSize - pad;
+        double maxY = (row + 1) * cellSize + pad;
+
+        // In the same order as cellZones
+        FieldLocations[] cellLocations = {
+            FieldLocations.RED_STAGE,
+            FieldLocations.BLUE_STAGE,
+            FieldLocations.RED_WING,
+            FieldLocations.BLUE_WING
+        };
+        for (int i = 0; i < cellZones.length; i++) {
+            int coverage = zoneCoverage(i, cellZones[i], cellPolygons[i], minX, minY, maxX, maxY);
+            if (coverage == 1) {
+                return (byte) cellLocations[i].ordinal();
+            } else if (coverage == 0) {
+                return BOUNDARY;
+            }
+        }
+        return (byte) FieldLocations.MIDDLE.ordinal();
     }
 
-    private static double areaOfTriangle(
-            double x1, double y1, double x2, double y2, double x3, double y3) {
-        return 0.5 * Math.abs(x1 * (y2 - y3) + x2 * (y3 - y1) + x3 * (y1 - y2));
+    /*
+     * Returns 1 if the rectangle is entirely inside the zone, -1 if it doesn't touch it, and 0 if
+     * it's mixed or too close to call. The zone is convex, so it contains the rectangle when it
+     * contains all four corners, and the rectangle is clear of it when a separating axis exists
+     * against the polygon bounding it.
+     */
+    private static int zoneCoverage(
+            int index,
+            int zone,
+            double[] polygon,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {
+        if (zone == FieldZones.NO_ZONE) {
+            return -1;
+        }
+
+        if (inCellZone(index, zone, minX, minY)
+                && inCellZone(index, zone, maxX, minY)
+                && inCellZone(index, zone, maxX, maxY)
+                && inCellZone(index, zone, minX, maxY)) {
+            return 1;
+        }
+
+        double halfWidth = 0.5 * (maxX - minX);
+        double halfHeight = 0.5 * (maxY - minY);
+        if (!sweptRectangleHitsPolygon(
+                minX + halfWidth,
+                minY + halfHeight,
+                halfWidth,
+                0.0,
+                0.0,
+                halfHeight,
+                0.0,
+                0.0,
+                polygon)) {
+            return -1;
+        }
+        return 0;
+    }
+
+    // The same test whereAmIExact uses for the zone at this index of the grid's zone order
+    private static boolean inCellZone(int index, int zone, double x, double y) {
+        switch (index) {
+            case 0:
+                return inStage(redStagePolygon, redStageArea, x, y);
+            case 1:
+                return inStage(blueStagePolygon, blueStageArea, x, y);
+            default:
+                return zones.isInZone(zone, x, y);
+        }
     }
 }
@@ -0,0 +1,368 @@
+package frc.robot.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Named polygonal zones on the field, loaded from a deploy file so new zones can be added without
+ * touching code. Zones may overlap, in which case the one listed first in the file wins {@link
+ * #findZone(double, double)}.
+ *
+ * <p>The zones are bucketed into a uniform grid when loaded, so a lookup only tests the few zones
+ * near the point no matter how many are defined, and queries never allocate.
+ */
+public class FieldZones {
+    /** Zone id returned when a point is not in any zone. */
+    public static final int NO_ZONE = -1;
+
+    private final String[] names;
+    private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+    // Every zone's vertices packed end to end, zone i owns [vertexStart[i], vertexStart[i + 1])
+    private final double[] vertexX;
+    private final double[] vertexY;
+    private final int[] vertexStart;
+
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+
+    // Zones whose bounding box touches each cell, cell i owns [cellStart[i], cellStart[i + 1])
+    private final double gridX;
+    private final double gridY;
+    private final double inverseCellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellZones;
+
+    /**
+     * Builds the zone index. Each polygon is given as x1, y1, x2, y2, ... and may be concave, but
+     * must not cross itself.
+     *
+     * @param names The name of each zone
+     * @param polygons The vertices of each zone, in the same order as the names
+     * @param cellSize The side length of a grid cell in meters
+     */
+    public FieldZones(List<String> names, List<double[]> polygons, double cellSize) {
+        if (names.size() != polygons.size()) {
+            throw new IllegalArgumentException("Every field zone needs exactly one polygon");
+        }
+        if (!(cellSize > 0.0)) {
+            throw new IllegalArgumentException("Field zone cell size must be positive");
+        }
+
+        int zoneCount = names.size();
+        this.names = names.toArray(new String[zoneCount]);
+
+        vertexStart = new int[zoneCount + 1];
+        for (int i = 0; i < zoneCount; i++) {
+            double[] polygon = polygons.get(i);
+            if (polygon.length < 6 || polygon.length % 2 != 0) {
+                throw new IllegalArgumentException(
+                        "Field zone " + this.names[i] + " needs at least 3 vertices");
+            }
+            if (ids.put(this.names[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate field zone " + this.names[i]);
+            }
+            vertexStart[i + 1] = vertexStart[i] + polygon.length / 2;
+        }
+
+        vertexX = new double[vertexStart[zoneCount]];
+        vertexY = new double[vertexStart[zoneCount]];
+        minX = new double[zoneCount];
+        minY = new double[zoneCount];
+        maxX = new double[zoneCount];
+        maxY = new double[zoneCount];
+
+        double allMinX = Double.POSITIVE_INFINITY;
+        double allMinY = Double.POSITIVE_INFINITY;
+        double allMaxX = Double.NEGATIVE_INFINITY;
+        double allMaxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < zoneCount; i++) {
+            double[] polygon = polygons.get(i);
+            minX[i] = Double.POSITIVE_INFINITY;
+            minY[i] = Double.POSITIVE_INFINITY;
+            maxX[i] = Double.NEGATIVE_INFINITY;
+            maxY[i] = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < polygon.length / 2; v++) {
+                double x = polygon[2 * v];
+                double y = polygon[2 * v + 1];
+                vertexX[vertexStart[i] + v] = x;
+                vertexY[vertexStart[i] + v] = y;
+                minX[i] = Math.min(minX[i], x);
+                minY[i] = Math.min(minY[i], y);
+                maxX[i] = Math.max(maxX[i], x);
+                maxY[i] = Math.max(maxY[i], y);
+            }
+            allMinX = Math.min(allMinX, minX[i]);
+            allMinY = Math.min(allMinY, minY[i]);
+            allMaxX = Math.max(allMaxX, maxX[i]);
+            allMaxY = Math.max(allMaxY, maxY[i]);
+        }
+
+        inverseCellSize = 1.0 / cellSize;
+        if (zoneCount == 0) {
+            gridX = 0.0;
+            gridY = 0.0;
+            columns = 0;
+            rows = 0;
+        } else {
+            gridX = allMinX;
+            gridY = allMinY;
+            columns = Math.max(1, (int) Math.ceil((allMaxX - allMinX) * inverseCellSize));
+            rows = Math.max(1, (int) Math.ceil((allMaxY - allMinY) * inverseCellSize));
+        }
+
+        // Count, then fill, the zones touching each cell so the lists can share one array
+        cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < zoneCount; i++) {
+            for (int row = row(minY[i]); row <= row(maxY[i]); row++) {
+                for (int column = column(minX[i]); column <= column(maxX[i]); column++) {
+                    cellStart[row * columns + column + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        cellZones = new int[cellStart[columns * rows]];
+        int[] filled = new int[columns * rows];
+        for (int i = 0; i < zoneCount; i++) {
+            for (int row = row(minY[i]); row <= row(maxY[i]); row++) {
+                for (int column = column(minX[i]); column <= column(maxX[i]); column++) {
+                    int cell = row * columns + column;
+                    cellZones[cellStart[cell] + filled[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads zones from a JSON file of the form {@code {"zones": [{"name": "BLUE_STAGE",
+     * "vertices": [[x, y], ...]}, ...]}}, with coordinates in meters from the blue origin.
+     *
+     * @param file The file to load
+     * @param cellSize The side length of a grid cell in meters
+     * @return The loaded zones
+     * @throws IOException If the file can't be read or isn't a valid zone list
+     */
+    public static FieldZones fromJson(File file, double cellSize) throws IOException {
+        JsonNode zones = new ObjectMapper().readTree(file).path("zones");
+        if (!zones.isArray()) {
+            throw new IOException("Field zone file " + file.getName() + " has no zones array");
+        }
+
+        List<String> names = new ArrayList<String>();
+        List<double[]> polygons = new ArrayList<double[]>();
+        for (JsonNode zone : zones) {
+            JsonNode name = zone.path("name");
+            JsonNode vertices = zone.path("vertices");
+            if (!name.isTextual() || !vertices.isArray() || vertices.size() < 3) {
+                throw new IOException(
+                        "Field zone file " + file.getName() + " has a malformed zone: " + zone);
+            }
+
+            double[] polygon = new double[vertices.size() * 2];
+            for (int v = 0; v < vertices.size(); v++) {
+                JsonNode vertex = vertices.get(v);
+                if (vertex.size() != 2 || !vertex.get(0).isNumber() || !vertex.get(1).isNumber()) {
+                    throw new IOException(
+                            "Field zone " + name.asText() + " has a malformed vertex: " + vertex);
+                }
+                polygon[2 * v] = vertex.get(0).asDouble();
+                polygon[2 * v + 1] = vertex.get(1).asDouble();
+            }
+
+            names.add(name.asText());
+            polygons.add(polygon);
+        }
+
+        try {
+            return new FieldZones(names, polygons, cellSize);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * This method is used to find the zone a point is in
+     *
+     * @param x The x position on the field
+     * @param y The y position on the field
+     * @return The id of the first zone in the file containing the point, or {@link #NO_ZONE}
+     */
+    public int findZone(double x, double y) {
+        int cell = cellAt(x, y);
+        if (cell < 0) {
+            return NO_ZONE;
+        }
+
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            int zone = cellZones[i];
+            if (contains(zone, x, y)) {
+                return zone;
+            }
+        }
+        return NO_ZONE;
+    }
+
+    /**
+     * This method is used to determine if a point is inside a zone, regardless of any other zones
+     * covering it
+     *
+     * @param zone The id of the zone
+     * @param x The x position on the field
+     * @param y The y position on the field
+     * @return {@code true} if the point is inside the zone
+     */
+    public boolean isInZone(int zone, double x, double y) {
+        if (zone < 0 || zone >= names.length) {
+            return false;
+        }
+        return contains(zone, x, y);
+    }
+
+    /**
+     * This method is used to determine if moving in a straight line between two points would enter
+     * a zone at any point, including starting or ending in it
+     *
+     * @param zone The id of the zone
+     * @param x1 The x position at the start of the segment
+     * @param y1 The y position at the start of the segment
+     * @param x2 The x position at the end of the segment
+     * @param y2 The y position at the end of the segment
+     * @return {@code true} if the segment touches the zone
+     */
+    public boolean segmentCrossesZone(int zone, double x1, double y1, double x2, double y2) {
+        if (zone < 0 || zone >= names.length) {
+            return false;
+        }
+
+        if (Math.max(x1, x2) < minX[zone]
+                || Math.min(x1, x2) > maxX[zone]
+                || Math.max(y1, y2) < minY[zone]
+                || Math.min(y1, y2) > maxY[zone]) {
+            return false;
+        }
+
+        if (contains(zone, x1, y1)) {
+            return true;
+        }
+
+        int start = vertexStart[zone];
+        int end = vertexStart[zone + 1];
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            if (FieldFinder.segmentsIntersect(
+                    x1, y1, x2, y2, vertexX[j], vertexY[j], vertexX[i], vertexY[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the id of a zone, which should be looked up once and kept rather than looked up
+     * every loop
+     *
+     * @param name The name of the zone in the deploy file
+     * @return The id of the zone, or {@link #NO_ZONE} if there is no zone with that name
+     */
+    public int getZoneId(String name) {
+        Integer id = ids.get(name);
+        return id == null ? NO_ZONE : id;
+    }
+
+    /**
+     * Returns the name of a zone
+     *
+     * @param zone The id of the zone
+     * @return The name of the zone, or "NONE" for {@link #NO_ZONE}
+     */
+    public String getZoneName(int zone) {
+        if (zone < 0 || zone >= names.length) {
+            return "NONE";
+        }
+        return names[zone];
+    }
+
+    /**
+     * Returns a copy of a zone's vertices, which allocates and so should be kept rather than
+     * fetched every loop
+     *
+     * @param zone The id of the zone
+     * @return The vertices packed as x1, y1, x2, y2, ..., empty for {@link #NO_ZONE}
+     */
+    public double[] getPolygon(int zone) {
+        if (zone < 0 || zone >= names.length) {
+            return new double[0];
+        }
+
+        int start = vertexStart[zone];
+        double[] polygon = new double[(vertexStart[zone + 1] - start) * 2];
+        for (int v = 0; v < polygon.length / 2; v++) {
+            polygon[2 * v] = vertexX[start + v];
+            polygon[2 * v + 1] = vertexY[start + v];
+        }
+        return polygon;
+    }
+
+    public int getZoneCount() {
+        return names.length;
+    }
+
+    // Even-odd crossing test: a point is inside if a ray from it crosses the boundary an odd number
+    // of times
+    private boolean contains(int zone, double x, double y) {
+        if (x < minX[zone] || x > maxX[zone] || y < minY[zone] || y > maxY[zone]) {
+            return false;
+        }
+
+        boolean inside = false;
+        int start = vertexStart[zone];
+        int end = vertexStart[zone + 1];
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            if ((vertexY[i] > y) != (vertexY[j] > y)) {
+                double crossingX =
+                        vertexX[i]
+                                + (y - vertexY[i])
+                                        * (vertexX[j] - vertexX[i])
+                                        / (vertexY[j] - vertexY[i]);
+                if (x < crossingX) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private int cellAt(double x, double y) {
+        if (columns == 0) {
+            return -1;
+        }
+
+        double column = (x - gridX) * inverseCellSize;
+        double row = (y - gridY) * inverseCellSize;
+        // Negated comparisons so NaN also lands outside the grid
+        if (!(column >= 0.0 && row >= 0.0 && column <= columns && row <= rows)) {
+            return -1;
+        }
+        return row(y) * columns + column(x);
+    }
+
+    // Points on the far edge of the grid belong to the last cell
+    private int column(double x) {
+        return Math.min(columns - 1, (int) ((x - gridX) * inverseCellSize));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, (int) ((y - gridY) * inverseCellSize));
+    }
+}
@@ -1,43 +1,125 @@
 package frc.robot.utils;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 
 public class InterpolateDouble {
-    private HashMap<Double, Double> map;
-    private ArrayList<Double> sortedKeys;
+    public enum InterpolationMode {
+        // Straight lines between keys
+        LINEAR,
+        // Monotone cubic Hermite (PCHIP): smooth slopes at the keys and no overshoot between them
+        MONOTONE_CUBIC
+    }
+
+    // Sorted keys and their values, stored as primitives so lookups never box or allocate
+    private final double[] keys;
+    private final double[] values;
+
+    // Cubic coefficients of each segment, null in linear mode:
+    // value = values[i] + dx * (slope[i] + dx * (quadratic[i] + dx * cubic[i]))
+    private final double[] slope;
+    private final double[] quadratic;
+    private final double[] cubic;
 
     private final double minValue;
     private final double maxValue;
 
-    private final double minKey;
-    private final double maxKey;
-
     public InterpolateDouble(HashMap<Double, Double> map) {
         this(map, Double.MIN_VALUE, Double.MAX_VALUE);
     }
 
     public InterpolateDouble(HashMap<Double, Double> map, double minValue, double maxValue) {
-        this.map = map;
+        this(map, minValue, maxValue, InterpolationMode.LINEAR);
+    }
+
+    public InterpolateDouble(
+            HashMap<Double, Double> map,
+            double minValue,
+            double maxValue,
+            InterpolationMode mode) {
         this.minValue = minValue;
         this.maxValue = maxValue;
 
-        sortedKeys = new ArrayList<Double>();
+        if (map.isEmpty()) {
+            throw new RuntimeException("Empty HashMap passed to InterpolateDouble");
+        }
+
+        keys = new double[map.size()];
+        int i = 0;
         for (Double k : map.keySet()) {
-            sortedKeys.add(k);
+            keys[i++] = k;
         }
-        Collections.sort(sortedKeys);
+        Arrays.sort(keys);
 
-        // Get lowest and highest keys of the HashMap
-        if (sortedKeys.size() > 0) {
-            minKey = sortedKeys.get(0);
-            maxKey = sortedKeys.get(sortedKeys.size() - 1);
+        values = new double[keys.length];
+        for (i = 0; i < keys.length; i++) {
+            values[i] = map.get(keys[i]);
+        }
+
+        if (mode == InterpolationMode.MONOTONE_CUBIC && keys.length > 2) {
+            int segments = keys.length - 1;
+            slope = new double[segments];
+            quadratic = new double[segments];
+            cubic = new double[segments];
+
+            double[] tangents = monotoneTangents(keys, values);
+            for (i = 0; i < segments; i++) {
+                double h = keys[i + 1] - keys[i];
+                double secant = (values[i + 1] - values[i]) / h;
+                slope[i] = tangents[i];
+                quadratic[i] = (3.0 * secant - 2.0 * tangents[i] - tangents[i + 1]) / h;
+                cubic[i] = (tangents[i] + tangents[i + 1] - 2.0 * secant) / (h * h);
+            }
         } else {
-            throw new RuntimeException("Empty HashMap passed to InterpolateDouble");
+            // Linear mode. PCHIP through only two keys is also just the line between them.
+            slope = null;
+            quadratic = null;
+            cubic = null;
         }
     }
 
+    /*
+     * Tangents at each key for a shape-preserving cubic (Fritsch-Butland, the same choice as
+     * scipy's PchipInterpolator). Tangents are zero at local extrema and flat spots, and a weighted
+     * harmonic mean of the neighbouring secants elsewhere, which keeps every segment monotone.
+     */
+    private static double[] monotoneTangents(double[] x, double[] y) {
+        int n = x.length;
+        double[] h = new double[n - 1];
+        double[] secant = new double[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            h[i] = x[i + 1] - x[i];
+            secant[i] = (y[i + 1] - y[i]) / h[i];
+        }
+
+        double[] tangents = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            if (secant[i - 1] * secant[i] <= 0.0) {
+                tangents[i] = 0.0;
+            } else {
+                double w1 = 2.0 * h[i] + h[i - 1];
+                double w2 = h[i] + 2.0 * h[i - 1];
+                tangents[i] = (w1 + w2) / (w1 / secant[i - 1] + w2 / secant[i]);
+            }
+        }
+
+        tangents[0] = endTangent(h[0], h[1], secant[0], secant[1]);
+        tangents[n - 1] = endTangent(h[n - 2], h[n - 3], secant[n - 2], secant[n - 3]);
+        return tangents;
+    }
+
+    // One-sided three-point tangent at an end, limited so the end segment stays monotone
+    private static double endTangent(double h0, double h1, double secant0, double secant1) {
+        double tangent = ((2.0 * h0 + h1) * secant0 - h0 * secant1) / (h0 + h1);
+        if (Math.signum(tangent) != Math.signum(secant0)) {
+            return 0.0;
+        } else if (Math.signum(secant0) != Math.signum(secant1)
+                && Math.abs(tangent) > 3.0 * Math.abs(secant0)) {
+            return 3.0 * secant0;
+        }
+        return tangent;
+    }
+
     /**
      * Returns the interpolated value for the given key. If the key is not in the map, it will
      * return the value for the closest key.
@@ -46,38 +128,31 @@ public class InterpolateDouble {
      * @return The interpolated value
      */
     public double getValue(double key) {
-        if (map.containsKey(key)) {
-            return map.get(key);
-        }
-
-        // Ensure that key is within the bounds of the HashMap
-        if (key < minKey) {
-            return map.get(minKey);
-        } else if (key > maxKey) {
-            return map.get(maxKey);
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            return values[index];
         }
 
-        double lowerKey = 0;
-        double upperKey = 0;
-        for (double k : sortedKeys) {
-            if (k < key) {
-                lowerKey = k;
-            } else {
-                upperKey = k;
-                break;
-            }
+        // Ensure that key is within the bounds of the table
+        int upper = -index - 1;
+        if (upper == 0) {
+            return values[0];
+        } else if (upper == keys.length) {
+            return values[keys.length - 1];
         }
 
-        double lowerValue = map.get(lowerKey);
-        double upperValue = map.get(upperKey);
-
-        // Edge case if keys equal each other
-        if (upperKey == lowerKey) {
-            upperKey += 0.01;
+        int lower = upper - 1;
+        double result;
+        if (slope == null) {
+            double t = (key - keys[lower]) / (keys[upper] - keys[lower]);
+            result = values[lower] * (1.0 - t) + t * values[upper];
+        } else {
+            double dx = key - keys[lower];
+            result =
+                    values[lower]
+                            + dx * (slope[lower] + dx * (quadratic[lower] + dx * cubic[lower]));
         }
 
-        double t = (key - lowerKey) / (upperKey - lowerKey);
-        double result = lowerValue * (1.0 - t) + t * upperValue;
         if (result < minValue) {
             return minValue;
         } else if (result > maxValue) {
@@ -86,4 +161,13 @@ public class InterpolateDouble {
             return result;
         }
     }
+
+    /**
+     * Returns a copy of the sorted keys of the table
+     *
+     * @return The keys, in ascending order
+     */
+    public double[] getKeys() {
+        return keys.clone();
+    }
 }
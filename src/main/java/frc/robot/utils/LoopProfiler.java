@@ -0,0 +1,185 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Constants.FeatureFlags;
+import frc.robot.Constants.ProfilerConstants;
+import java.util.Arrays;
+import java.util.HashMap;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Times subsystem periodic() calls and command execute() calls with System.nanoTime and logs rolling
+ * p50/p95/p99/max times under LoopProfile/ so loop overruns can be traced to a specific piece of
+ * code instead of guessed at.
+ *
+ * <p>Subsystems wrap their periodic() in start()/stop(). Commands are timed automatically through
+ * the scheduler's execute callback, measured from the previous profiler mark, so the first command
+ * of a cycle also carries the scheduler's trigger polling.
+ *
+ * <p>All methods must be called from the main robot thread.
+ */
+public class LoopProfiler {
+    private static final HashMap<String, Histogram> histograms = new HashMap<String, Histogram>();
+
+    private static int sampleEveryNCycles = ProfilerConstants.sampleEveryNCycles;
+
+    private static int cycle = 0;
+    private static boolean sampling = false;
+    private static long cycleStartNanos = 0;
+    private static long lastMarkNanos = 0;
+
+    private static boolean installed = false;
+
+    /**
+     * This method is used to hook the profiler into the command scheduler so that running commands
+     * are timed. Calling it more than once has no effect.
+     */
+    public static void install() {
+        if (installed || !FeatureFlags.profileLoop) {
+            return;
+        }
+        installed = true;
+
+        CommandScheduler.getInstance().onCommandExecute(LoopProfiler::commandExecuted);
+    }
+
+    /**
+     * This method is used to change how often cycles are timed. Timing every Nth cycle keeps the
+     * profiler cheap enough to leave on at competition.
+     *
+     * @param n Time one cycle out of every n, 1 times every cycle
+     */
+    public static void setSampleEveryNCycles(int n) {
+        sampleEveryNCycles = Math.max(1, n);
+    }
+
+    /** This method is used to mark the start of a robot cycle, before the scheduler runs. */
+    public static void startCycle() {
+        sampling = FeatureFlags.profileLoop && cycle % sampleEveryNCycles == 0;
+        if (sampling) {
+            cycleStartNanos = System.nanoTime();
+            lastMarkNanos = cycleStartNanos;
+        }
+    }
+
+    /** This method is used to mark the end of a robot cycle and periodically log the results. */
+    public static void endCycle() {
+        if (sampling) {
+            record("Robot.cycle", System.nanoTime() - cycleStartNanos);
+        }
+
+        if (FeatureFlags.profileLoop && cycle % ProfilerConstants.logPeriodCycles == 0) {
+            for (Histogram histogram : histograms.values()) {
+                histogram.log();
+            }
+        }
+        cycle++;
+    }
+
+    /**
+     * This method is used to start timing a block of code. The name should be a constant string so
+     * that starting a timer does not allocate.
+     *
+     * @param name The name the block is logged under
+     */
+    public static void start(String name) {
+        if (!sampling) {
+            return;
+        }
+
+        getHistogram(name).startNanos = System.nanoTime();
+    }
+
+    /**
+     * This method is used to stop timing a block of code started with {@link #start(String)}.
+     *
+     * @param name The name the block is logged under
+     */
+    public static void stop(String name) {
+        if (!sampling) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        Histogram histogram = getHistogram(name);
+        histogram.record(now - histogram.startNanos);
+        lastMarkNanos = now;
+    }
+
+    private static void commandExecuted(Command command) {
+        if (!sampling) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        record(command.getName(), now - lastMarkNanos);
+        lastMarkNanos = now;
+    }
+
+    private static void record(String name, long nanos) {
+        getHistogram(name).record(nanos);
+    }
+
+    private static Histogram getHistogram(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram(name, ProfilerConstants.windowSize);
+            histograms.put(name, histogram);
+        }
+        return histogram;
+    }
+
+    /** Rolling window of the most recent samples for one timed block. */
+    private static class Histogram {
+        private final long[] samples;
+        private final long[] sorted;
+        private int count = 0;
+        private int next = 0;
+
+        private long startNanos = 0;
+
+        private final String p50Key;
+        private final String p95Key;
+        private final String p99Key;
+        private final String maxKey;
+
+        private Histogram(String name, int windowSize) {
+            samples = new long[windowSize];
+            sorted = new long[windowSize];
+
+            p50Key = "LoopProfile/" + name + "/p50Ms";
+            p95Key = "LoopProfile/" + name + "/p95Ms";
+            p99Key = "LoopProfile/" + name + "/p99Ms";
+            maxKey = "LoopProfile/" + name + "/maxMs";
+        }
+
+        private void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) {
+                count++;
+            }
+        }
+
+        private void log() {
+            if (count == 0) {
+                return;
+            }
+
+            System.arraycopy(samples, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+
+            Logger.recordOutput(p50Key, percentileMs(0.50));
+            Logger.recordOutput(p95Key, percentileMs(0.95));
+            Logger.recordOutput(p99Key, percentileMs(0.99));
+            Logger.recordOutput(maxKey, sorted[count - 1] / 1e6);
+        }
+
+        // Nearest-rank percentile of the sorted window
+        private double percentileMs(double percentile) {
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))] / 1e6;
+        }
+    }
+}
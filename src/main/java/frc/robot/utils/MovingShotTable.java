@@ -0,0 +1,119 @@
+package frc.robot.utils;
+
+import frc.robot.utils.ShotTable.Shot;
+
+/**
+ * Time of flight keyed by both distance to the speaker and the robot's radial velocity toward it,
+ * bilinearly interpolated from a flat primitive grid.
+ *
+ * <p>The grid is seeded from the static table: a note fired while closing on the speaker at v m/s
+ * keeps that velocity, so it flies like a stationary shot from distance d - v * timeOfFlight. That
+ * fixed point is solved once per grid point here, so nothing iterates inside the robot loop.
+ *
+ * <p>{@link VirtualTargetSolver} starts from this table's time of flight, so a robot moving
+ * straight toward or away from the speaker only needs the iteration that confirms it. The solver
+ * takes the shooter RPM and aim angle from the static table at the distance it settles on, which
+ * also covers robots moving sideways, so this table doesn't keep them.
+ */
+public class MovingShotTable {
+    private static final int seedIterations = 10;
+
+    private final ShotTable shotTable;
+
+    private final double distanceInverseStep;
+    private final double minVelocity;
+    private final double velocityInverseStep;
+    private final int distanceCount;
+    private final int velocityCount;
+
+    // Row-major by velocity: index = velocityIndex * distanceCount + distanceIndex
+    private final double[] timeOfFlightSec;
+
+    /**
+     * Builds the grid from a static shot table
+     *
+     * @param shotTable The stationary shot table to seed from
+     * @param maxDistance The last distance of the grid, in meters
+     * @param distanceStep The spacing of the grid in distance, in meters
+     * @param maxRadialVelocity The largest radial velocity in either direction, in m/s
+     * @param velocityStep The spacing of the grid in radial velocity, in m/s
+     */
+    public MovingShotTable(
+            ShotTable shotTable,
+            double maxDistance,
+            double distanceStep,
+            double maxRadialVelocity,
+            double velocityStep) {
+        if (!(distanceStep > 0.0) || !(velocityStep > 0.0)) {
+            throw new IllegalArgumentException("Invalid grid for MovingShotTable");
+        }
+
+        this.shotTable = shotTable;
+
+        distanceCount = (int) Math.ceil(maxDistance / distanceStep) + 1;
+        velocityCount = 2 * (int) Math.ceil(maxRadialVelocity / velocityStep) + 1;
+        distanceInverseStep = 1.0 / distanceStep;
+        minVelocity = -((velocityCount - 1) / 2) * velocityStep;
+        velocityInverseStep = 1.0 / velocityStep;
+
+        timeOfFlightSec = new double[distanceCount * velocityCount];
+
+        Shot shot = new Shot();
+        for (int v = 0; v < velocityCount; v++) {
+            double radialVelocity = minVelocity + v * velocityStep;
+            for (int d = 0; d < distanceCount; d++) {
+                double distance = d * distanceStep;
+
+                double effectiveDistance = distance;
+                for (int i = 0; i < seedIterations; i++) {
+                    double timeOfFlight = shotTable.lookup(effectiveDistance, shot).timeOfFlightSec;
+                    effectiveDistance = Math.max(0.0, distance - radialVelocity * timeOfFlight);
+                }
+
+                timeOfFlightSec[v * distanceCount + d] =
+                        shotTable.lookup(effectiveDistance, shot).timeOfFlightSec;
+            }
+        }
+    }
+
+    /**
+     * Looks up the time of flight for a moving robot. Inputs off the edges of the grid are clamped
+     * to the nearest edge.
+     *
+     * @param distanceMeters The distance from the robot to the speaker
+     * @param radialVelocity The robot's velocity toward the speaker, positive when closing in
+     * @return The time of flight in seconds
+     */
+    public double lookupTimeOfFlight(double distanceMeters, double radialVelocity) {
+        double dPosition = clamp(distanceMeters * distanceInverseStep, distanceCount - 1);
+        double vPosition =
+                clamp((radialVelocity - minVelocity) * velocityInverseStep, velocityCount - 1);
+
+        int d = Math.min((int) dPosition, distanceCount - 2);
+        int v = Math.min((int) vPosition, velocityCount - 2);
+        double td = dPosition - d;
+        double tv = vPosition - v;
+
+        return bilinear(timeOfFlightSec, v * distanceCount + d, td, tv);
+    }
+
+    /** Returns the static table this one was seeded from */
+    public ShotTable getShotTable() {
+        return shotTable;
+    }
+
+    private double bilinear(double[] grid, int i, double td, double tv) {
+        int j = i + distanceCount;
+        double low = grid[i] + td * (grid[i + 1] - grid[i]);
+        double high = grid[j] + td * (grid[j + 1] - grid[j]);
+        return low + tv * (high - low);
+    }
+
+    // Written so that NaN also clamps to 0
+    private static double clamp(double position, double max) {
+        if (!(position > 0.0)) {
+            return 0.0;
+        }
+        return Math.min(position, max);
+    }
+}
@@ -0,0 +1,81 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Remembers the last command sent on one channel, such as a motor's control output or its neutral
+ * mode, so a command identical to the last one can be skipped instead of sent over CAN again.
+ *
+ * <p>A control channel can have a keep-alive period, after which an identical command is resent in
+ * case the device dropped it. A config channel has none, since the device keeps its config until
+ * it resets, so its owner should {@link #invalidate()} it when the device reports a reset.
+ *
+ * <p>Only use this from the main robot thread.
+ */
+public class RedundantCommandFilter {
+    private static long suppressedCount = 0;
+
+    private final double keepAliveSeconds;
+
+    private boolean hasSent = false;
+    private Object lastMode = null;
+    private double lastValue = 0.0;
+    private double lastSendTime = 0.0;
+
+    /** Creates a filter with no keep-alive, which only resends on a change or once invalidated */
+    public RedundantCommandFilter() {
+        this(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param keepAliveSeconds How long an identical command may be skipped before it is resent
+     */
+    public RedundantCommandFilter(double keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+    }
+
+    /**
+     * This method is used to decide whether a command needs to be sent, recording it as sent if so
+     *
+     * @param mode What kind of command it is, compared by reference
+     * @param value The setpoint of the command
+     * @return {@code true} if the command differs from the last one or the keep-alive has passed
+     */
+    public boolean shouldSend(Object mode, double value) {
+        double now = Timer.getFPGATimestamp();
+        if (hasSent
+                && mode == lastMode
+                && value == lastValue
+                && now - lastSendTime < keepAliveSeconds) {
+            suppressedCount++;
+            return false;
+        }
+
+        hasSent = true;
+        lastMode = mode;
+        lastValue = value;
+        lastSendTime = now;
+        return true;
+    }
+
+    /**
+     * This method is used to decide whether a command needs to be sent, for a channel that only
+     * carries one kind of command
+     *
+     * @param value The setpoint of the command
+     * @return {@code true} if the command differs from the last one or the keep-alive has passed
+     */
+    public boolean shouldSend(double value) {
+        return shouldSend(null, value);
+    }
+
+    /** This method is used to make the next command send, as after a failed send or a reset */
+    public void invalidate() {
+        hasSent = false;
+    }
+
+    /** Returns how many commands every filter has skipped since the robot started */
+    public static long getSuppressedCount() {
+        return suppressedCount;
+    }
+}
@@ -0,0 +1,101 @@
+package frc.robot.utils;
+
+/**
+ * The distance-keyed scoring curves (shooter RPM, aim angle, aim tolerance and note time of flight)
+ * stored as parallel columns over one uniform grid of distances. A lookup locates the grid cell
+ * once and interpolates every column from it, so the curves are always read at the same distance
+ * and with the same clamping no matter who asks.
+ */
+public class ShotTable {
+    /** Reusable result of a lookup, so that callers don't allocate every loop */
+    public static class Shot {
+        public double distanceMeters = 0.0;
+        public double shooterRPM = 0.0;
+        public double aimAngleRad = 0.0;
+        public double aimToleranceRad = 0.0;
+        public double timeOfFlightSec = 0.0;
+    }
+
+    private final double inverseStep;
+    private final int lastCell;
+
+    private final UniformInterpolateDouble shooterRPM;
+    private final UniformInterpolateDouble aimAngleRad;
+    private final UniformInterpolateDouble aimToleranceRad;
+    private final UniformInterpolateDouble timeOfFlightSec;
+
+    /**
+     * Resamples each curve onto a shared grid running from 0 to maxDistance
+     *
+     * @param shooterRPM Shooter RPM by distance in meters
+     * @param aimAngleRad Aimer angle in radians by distance in meters
+     * @param aimToleranceRad Aimer angle tolerance in radians by distance in meters
+     * @param timeOfFlightSec Note time of flight in seconds by distance in meters
+     * @param maxDistance The last distance of the grid
+     * @param step The distance between grid points
+     */
+    public ShotTable(
+            InterpolateDouble shooterRPM,
+            InterpolateDouble aimAngleRad,
+            InterpolateDouble aimToleranceRad,
+            InterpolateDouble timeOfFlightSec,
+            double maxDistance,
+            double step) {
+        this.shooterRPM = new UniformInterpolateDouble(shooterRPM, 0.0, maxDistance, step);
+        this.aimAngleRad = new UniformInterpolateDouble(aimAngleRad, 0.0, maxDistance, step);
+        this.aimToleranceRad =
+                new UniformInterpolateDouble(aimToleranceRad, 0.0, maxDistance, step);
+        this.timeOfFlightSec =
+                new UniformInterpolateDouble(timeOfFlightSec, 0.0, maxDistance, step);
+
+        inverseStep = 1.0 / step;
+        lastCell = this.shooterRPM.getSize() - 2;
+    }
+
+    /**
+     * Looks up every curve at the given distance. Distances off the ends of the grid return the
+     * values at the nearest end.
+     *
+     * @param distanceMeters The distance from the robot to the goal
+     * @param result The object to write the result into
+     * @return The result object, for convenience
+     */
+    public Shot lookup(double distanceMeters, Shot result) {
+        double position = distanceMeters * inverseStep;
+
+        int index;
+        double t;
+        // Written so that NaN also falls back to the first grid point
+        if (!(position > 0.0)) {
+            index = 0;
+            t = 0.0;
+        } else if (position >= lastCell + 1) {
+            index = lastCell;
+            t = 1.0;
+        } else {
+            index = (int) position;
+            t = position - index;
+        }
+
+        result.distanceMeters = distanceMeters;
+        result.shooterRPM = shooterRPM.getValueInCell(index, t);
+        result.aimAngleRad = aimAngleRad.getValueInCell(index, t);
+        result.aimToleranceRad = aimToleranceRad.getValueInCell(index, t);
+        result.timeOfFlightSec = timeOfFlightSec.getValueInCell(index, t);
+        return result;
+    }
+
+    /**
+     * Returns the largest resampling error of each column against its source table
+     *
+     * @return The errors of the RPM, aim angle, aim tolerance and time of flight columns
+     */
+    public double[] getMaxResamplingErrors() {
+        return new double[] {
+            shooterRPM.getMaxResamplingError(),
+            aimAngleRad.getMaxResamplingError(),
+            aimToleranceRad.getMaxResamplingError(),
+            timeOfFlightSec.getMaxResamplingError()
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.CANDevices;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Configures devices in parallel at startup. Each IO hands over one block of blocking config calls
+ * per device from its constructor, and every block runs on its own thread, since devices on the
+ * bus don't wait on each other. Startup then takes about as long as the slowest device rather than
+ * all of them added up.
+ *
+ * <p>A block that fails is run again after a delay that doubles every attempt, so it must be safe
+ * to repeat. {@link #awaitAll()} waits for every block and logs how long each device took under
+ * StartupConfig/.
+ *
+ * <p>Call {@link #configure(String, BooleanSupplier)} and {@link #awaitAll()} from the main robot
+ * thread.
+ */
+public class StartupConfigurator {
+    private static final List<Task> tasks = new ArrayList<Task>();
+
+    private static ExecutorService executor = null;
+    private static long startNanos = 0;
+
+    /**
+     * This method is used to start configuring a device in the background
+     *
+     * @param device The name the device is logged under
+     * @param configure Applies the device's config, returning {@code true} if every call succeeded
+     */
+    public static void configure(String device, BooleanSupplier configure) {
+        if (executor == null) {
+            executor =
+                    Executors.newCachedThreadPool(
+                            runnable -> {
+                                Thread thread = new Thread(runnable, "StartupConfigurator");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            startNanos = System.nanoTime();
+        }
+
+        Task task = new Task(device);
+        task.result = CompletableFuture.runAsync(() -> task.run(configure), executor);
+        tasks.add(task);
+    }
+
+    /**
+     * This method is used to wait for every device to finish configuring, then log the results.
+     * Devices still configuring after the timeout are reported as failed and left to finish.
+     */
+    public static void awaitAll() {
+        if (executor == null) {
+            return;
+        }
+
+        long deadline = startNanos + (long) (CANDevices.startupConfigTimeoutSeconds * 1e9);
+        int failed = 0;
+        for (Task task : tasks) {
+            try {
+                task.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                task.timedOut = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                task.timedOut = true;
+            } catch (ExecutionException e) {
+                task.error = e.getCause();
+            }
+
+            if (!task.ok) {
+                failed++;
+                DriverStation.reportWarning(task.describeFailure(), false);
+            }
+
+            String prefix = "StartupConfig/" + task.device;
+            Logger.recordOutput(prefix + "/latencyMs", task.latencyNanos / 1e6);
+            Logger.recordOutput(prefix + "/attempts", task.attempts);
+            Logger.recordOutput(prefix + "/ok", task.ok);
+        }
+
+        Logger.recordOutput("StartupConfig/totalMs", (System.nanoTime() - startNanos) / 1e6);
+        Logger.recordOutput("StartupConfig/failedDevices", failed);
+
+        // Timed out devices keep their threads until they finish
+        executor.shutdown();
+        executor = null;
+        tasks.clear();
+    }
+
+    private static class Task {
+        private final String device;
+        private CompletableFuture<Void> result;
+
+        // Written by the config thread, read once its future completes
+        private volatile boolean ok = false;
+        private volatile int attempts = 0;
+        private volatile long latencyNanos = 0;
+
+        private boolean timedOut = false;
+        private Throwable error = null;
+
+        private Task(String device) {
+            this.device = device;
+        }
+
+        private void run(BooleanSupplier configure) {
+            long taskStart = System.nanoTime();
+            double backoffSeconds = CANDevices.startupConfigBackoffSeconds;
+            try {
+                while (attempts < CANDevices.startupConfigAttempts) {
+                    attempts++;
+                    if (configure.getAsBoolean()) {
+                        ok = true;
+                        return;
+                    }
+                    if (attempts < CANDevices.startupConfigAttempts) {
+                        Thread.sleep((long) (backoffSeconds * 1000));
+                        backoffSeconds *= 2.0;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                latencyNanos = System.nanoTime() - taskStart;
+            }
+        }
+
+        private String describeFailure() {
+            if (timedOut) {
+                return "Configuring " + device + " is taking too long, continuing without it";
+            }
+            if (error != null) {
+                return "Configuring " + device + " threw " + error;
+            }
+            return "Failed to configure " + device + " after " + attempts + " attempts";
+        }
+    }
+}
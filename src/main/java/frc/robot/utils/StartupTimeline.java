@@ -0,0 +1,73 @@
+package frc.robot.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Records how long each phase of robot startup takes, so boot time can be traced to a specific
+ * step. Call {@link #mark(String)} at the end of each phase; the phase's time is measured from the
+ * previous mark.
+ *
+ * <p>AdvantageKit only accepts metadata before the logger starts, so phases marked before {@link
+ * Logger#start()} are recorded as metadata and later ones are logged under Startup/ by {@link
+ * #finish()}.
+ *
+ * <p>All methods must be called from the main robot thread.
+ */
+public class StartupTimeline {
+    private static final ArrayList<String> phases = new ArrayList<String>();
+    private static final ArrayList<Double> phaseMillis = new ArrayList<Double>();
+
+    private static long startNanos = System.nanoTime();
+    private static long lastMarkNanos = startNanos;
+    private static boolean loggerStarted = false;
+
+    /**
+     * This method is used to start the timeline at the top of robotInit. The time the JVM spent
+     * before robotInit, loading classes and constructing the robot, is recorded as its own phase.
+     */
+    public static void begin() {
+        startNanos = System.nanoTime();
+        lastMarkNanos = startNanos;
+
+        double jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        phases.add("JVM");
+        phaseMillis.add(jvmMillis);
+        Logger.recordMetadata("Startup/JVMMs", String.format("%.1f", jvmMillis));
+    }
+
+    /**
+     * This method is used to mark the end of a startup phase
+     *
+     * @param phase The name of the phase that just finished
+     */
+    public static void mark(String phase) {
+        long now = System.nanoTime();
+        double millis = (now - lastMarkNanos) / 1e6;
+        lastMarkNanos = now;
+
+        phases.add(phase);
+        phaseMillis.add(millis);
+        if (!loggerStarted) {
+            Logger.recordMetadata("Startup/" + phase + "Ms", String.format("%.1f", millis));
+        }
+    }
+
+    /**
+     * This method is used to mark the end of the Logger.start phase, call it right after {@link
+     * Logger#start()}. Phases marked from here on are only logged by {@link #finish()}.
+     */
+    public static void markLoggerStarted() {
+        loggerStarted = true;
+        mark("Logger.start");
+    }
+
+    /** This method is used to log every phase once startup is done, at the end of robotInit */
+    public static void finish() {
+        for (int i = 0; i < phases.size(); i++) {
+            Logger.recordOutput("Startup/" + phases.get(i) + "Ms", phaseMillis.get(i));
+        }
+        Logger.recordOutput("Startup/robotInitMs", (System.nanoTime() - startNanos) / 1e6);
+    }
+}
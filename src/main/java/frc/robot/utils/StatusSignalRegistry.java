@@ -0,0 +1,76 @@
+package frc.robot.utils;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import java.util.Arrays;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Every Phoenix 6 status signal read by the IO layers, refreshed together once per cycle. IOs keep
+ * the signals they need as fields, register them when constructed, and read the cached values in
+ * updateInputs() instead of calling the device getters, which would each do their own refresh.
+ *
+ * <p>The refresh time and the number of stale signals (ones whose last frame timed out or failed)
+ * are logged under CAN/ every cycle.
+ *
+ * <p>All methods must be called from the main robot thread.
+ */
+public class StatusSignalRegistry {
+    private static BaseStatusSignal[] signals = new BaseStatusSignal[0];
+
+    /**
+     * This method is used to add signals to the per-cycle refresh. Registering a signal more than
+     * once has no effect.
+     *
+     * @param toRegister The signals to refresh every cycle
+     */
+    public static void register(BaseStatusSignal... toRegister) {
+        int count = signals.length;
+        BaseStatusSignal[] grown = Arrays.copyOf(signals, count + toRegister.length);
+        for (BaseStatusSignal signal : toRegister) {
+            if (!contains(grown, count, signal)) {
+                grown[count++] = signal;
+            }
+        }
+        signals = Arrays.copyOf(grown, count);
+    }
+
+    /**
+     * This method is used to refresh every registered signal in one call. Run it once per cycle,
+     * before the scheduler runs the subsystems' updateInputs().
+     */
+    public static void refreshAll() {
+        if (signals.length == 0) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        StatusCode status = BaseStatusSignal.refreshAll(signals);
+        double latencyMs = (System.nanoTime() - startNanos) / 1e6;
+
+        int stale = 0;
+        for (BaseStatusSignal signal : signals) {
+            if (!signal.getStatus().isOK()) {
+                stale++;
+            }
+        }
+
+        Logger.recordOutput("CAN/refreshLatencyMs", latencyMs);
+        Logger.recordOutput("CAN/refreshOk", status.isOK());
+        Logger.recordOutput("CAN/staleSignals", stale);
+        Logger.recordOutput("CAN/registeredSignals", signals.length);
+    }
+
+    public static int getSignalCount() {
+        return signals.length;
+    }
+
+    private static boolean contains(BaseStatusSignal[] array, int count, BaseStatusSignal signal) {
+        for (int i = 0; i < count; i++) {
+            if (array[i] == signal) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
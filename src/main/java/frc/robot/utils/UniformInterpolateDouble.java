@@ -0,0 +1,112 @@
+package frc.robot.utils;
+
+/**
+ * An InterpolateDouble resampled at construction onto a fixed-step grid of keys. A lookup is an
+ * index computation and one lerp instead of a search, at the cost of a small error wherever a
+ * source key falls between grid points. That error is measured at construction and available from
+ * {@link #getMaxResamplingError()}, so the step can be chosen to keep it negligible.
+ */
+public class UniformInterpolateDouble {
+    private final double minKey;
+    private final double maxKey;
+    private final double inverseStep;
+    private final double[] values;
+
+    private final double maxResamplingError;
+
+    /**
+     * Resamples a table onto a fixed-step grid. Keys outside [minKey, maxKey] return the value at
+     * the nearest end of the grid, so the grid should cover every key that will be looked up.
+     *
+     * @param source The table to resample
+     * @param minKey The first key of the grid
+     * @param maxKey The last key of the grid
+     * @param step The distance between grid keys
+     */
+    public UniformInterpolateDouble(
+            InterpolateDouble source, double minKey, double maxKey, double step) {
+        if (!(step > 0.0) || !(maxKey > minKey)) {
+            throw new IllegalArgumentException("Invalid grid for UniformInterpolateDouble");
+        }
+
+        int size = (int) Math.ceil((maxKey - minKey) / step) + 1;
+
+        this.minKey = minKey;
+        this.maxKey = minKey + (size - 1) * step;
+        this.inverseStep = 1.0 / step;
+
+        values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = source.getValue(minKey + i * step);
+        }
+
+        // For a linear source the error peaks at the source's own keys. The middle of every cell
+        // is checked too, which covers sources that clamp or curve between their keys
+        double maxError = 0.0;
+        for (double key : source.getKeys()) {
+            if (key >= minKey && key <= this.maxKey) {
+                maxError = Math.max(maxError, Math.abs(getValue(key) - source.getValue(key)));
+            }
+        }
+        for (int i = 0; i < size - 1; i++) {
+            double key = minKey + (i + 0.5) * step;
+            maxError = Math.max(maxError, Math.abs(getValue(key) - source.getValue(key)));
+        }
+        maxResamplingError = maxError;
+    }
+
+    /**
+     * Returns the interpolated value for the given key. Keys off the ends of the grid return the
+     * value at the nearest end.
+     *
+     * @param key The key to interpolate
+     * @return The interpolated value
+     */
+    public double getValue(double key) {
+        double position = (key - minKey) * inverseStep;
+
+        // Written so that NaN also falls back to the first value
+        if (!(position > 0.0)) {
+            return values[0];
+        }
+
+        int index = (int) position;
+        if (index >= values.length - 1) {
+            return values[values.length - 1];
+        }
+
+        double t = position - index;
+        return values[index] + t * (values[index + 1] - values[index]);
+    }
+
+    /**
+     * Returns the largest difference between this grid and the table it was sampled from
+     *
+     * @return The maximum absolute error, in the units of the table's values
+     */
+    public double getMaxResamplingError() {
+        return maxResamplingError;
+    }
+
+    public double getMinKey() {
+        return minKey;
+    }
+
+    public double getMaxKey() {
+        return maxKey;
+    }
+
+    /**
+     * Returns the number of grid points, which is the memory cost of the table in doubles
+     *
+     * @return The number of grid points
+     */
+    public int getSize() {
+        return values.length;
+    }
+
+    // Interpolates within a known cell, for tables that share one grid and locate the cell once
+    double getValueInCell(int index, double t) {
+        return values[index] + t * (values[index + 1] - values[index]);
+    }
+}
@@ -0,0 +1,121 @@
+package frc.robot.utils;
+
+import frc.robot.utils.ShotTable.Shot;
+
+/**
+ * Solves where to aim while the robot is moving. A note leaves the shooter with the robot's
+ * velocity, so over its time of flight it drifts by velocity times time of flight. Aiming at a
+ * virtual target moved the other way by that drift lands the note on the real one, but the time of
+ * flight depends on the distance to the virtual target, so the two are iterated until the virtual
+ * target stops moving.
+ *
+ * <p>The first virtual target comes from a {@link MovingShotTable}, which has already solved the
+ * case where the robot moves straight toward or away from the target. That case usually converges
+ * on the first iteration, and every other case starts close.
+ *
+ * <p>The heading, shooter RPM and aim angle all come from the same virtual target, so the
+ * drivetrain and the shooter always agree on the shot. Solving never allocates.
+ */
+public class VirtualTargetSolver {
+    /** Reusable result of a solve, so that callers don't allocate every loop */
+    public static class Solution {
+        public double virtualTargetX = 0.0;
+        public double virtualTargetY = 0.0;
+        /** Field relative direction from the robot to the virtual target */
+        public double headingRadians = 0.0;
+        /** The shot for the distance to the virtual target */
+        public final Shot shot = new Shot();
+        public int iterations = 0;
+        /** Whether the virtual target settled within tolerance before running out of iterations */
+        public boolean converged = false;
+    }
+
+    private final MovingShotTable movingShotTable;
+    private final ShotTable shotTable;
+    private final int maxIterations;
+    private final double toleranceSquared;
+
+    /**
+     * @param movingShotTable The table giving the first guess, and through it the static table
+     *     giving the time of flight and shot for each distance
+     * @param maxIterations The most times to move the virtual target
+     * @param toleranceMeters How little the virtual target has to move to count as converged
+     */
+    public VirtualTargetSolver(
+            MovingShotTable movingShotTable, int maxIterations, double toleranceMeters) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Virtual target solver needs at least 1 iteration");
+        }
+        this.movingShotTable = movingShotTable;
+        this.shotTable = movingShotTable.getShotTable();
+        this.maxIterations = maxIterations;
+        this.toleranceSquared = toleranceMeters * toleranceMeters;
+    }
+
+    /**
+     * This method is used to find the shot that hits a target from a moving robot
+     *
+     * @param robotX The field relative x position the note is fired from
+     * @param robotY The field relative y position the note is fired from
+     * @param velocityX The field relative x velocity of the robot in meters per second
+     * @param velocityY The field relative y velocity of the robot in meters per second
+     * @param targetX The field relative x position of the target
+     * @param targetY The field relative y position of the target
+     * @param solution The object to write the result into
+     * @return The solution object, for convenience
+     */
+    public Solution solve(
+            double robotX,
+            double robotY,
+            double velocityX,
+            double velocityY,
+            double targetX,
+            double targetY,
+            Solution solution) {
+        double targetDx = targetX - robotX;
+        double targetDy = targetY - robotY;
+        double targetDistance = Math.sqrt(targetDx * targetDx + targetDy * targetDy);
+        double radialVelocity = 0.0;
+        if (targetDistance > 1e-6) {
+            radialVelocity = (velocityX * targetDx + velocityY * targetDy) / targetDistance;
+        }
+
+        double seedTimeOfFlight =
+                movingShotTable.lookupTimeOfFlight(targetDistance, radialVelocity);
+        double virtualX = targetX - velocityX * seedTimeOfFlight;
+        double virtualY = targetY - velocityY * seedTimeOfFlight;
+
+        solution.converged = false;
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            iteration++;
+
+            double dx = virtualX - robotX;
+            double dy = virtualY - robotY;
+            double timeOfFlight =
+                    shotTable.lookup(Math.sqrt(dx * dx + dy * dy), solution.shot).timeOfFlightSec;
+
+            double nextX = targetX - velocityX * timeOfFlight;
+            double nextY = targetY - velocityY * timeOfFlight;
+            double moveX = nextX - virtualX;
+            double moveY = nextY - virtualY;
+            virtualX = nextX;
+            virtualY = nextY;
+
+            if (moveX * moveX + moveY * moveY < toleranceSquared) {
+                solution.converged = true;
+                break;
+            }
+        }
+
+        double dx = virtualX - robotX;
+        double dy = virtualY - robotY;
+        shotTable.lookup(Math.sqrt(dx * dx + dy * dy), solution.shot);
+
+        solution.virtualTargetX = virtualX;
+        solution.virtualTargetY = virtualY;
+        solution.headingRadians = Math.atan2(dy, dx);
+        solution.iterations = iteration;
+        return solution;
+    }
+}
@@ -0,0 +1,83 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.ScoringConstants;
+import frc.robot.telemetry.OdometrySample;
+import frc.robot.telemetry.RobotState;
+import java.util.Optional;
+
+/**
+ * Runs the per-cycle math on throwaway objects while the robot is disabled, so that class loading
+ * and JIT compilation happen before auto instead of stalling the first enabled cycles. Nothing
+ * shared with the real robot code is touched.
+ *
+ * <p>Only use this from the main robot thread.
+ */
+public class Warmup {
+    private static final int poseCount = 64;
+
+    private static final RobotState robotState = new RobotState();
+    private static final OdometrySample odometrySample = new OdometrySample();
+    private static final ConstantAccelerationKalmanFilter kalmanFilter =
+            new ConstantAccelerationKalmanFilter(DriveConstants.kalmanJerkStdDev);
+    private static final InterpolateDouble timeToPutAimDown =
+            new InterpolateDouble(ScoringConstants.timeToPutAimDownMap(), 0.0, 2.0);
+    private static final Optional<Alliance> red = Optional.of(Alliance.Red);
+    private static final Optional<Alliance> blue = Optional.of(Alliance.Blue);
+
+    private static final Pose2d[] poses = new Pose2d[poseCount];
+    private static int iteration = 0;
+    private static double timestamp = 0.0;
+
+    static {
+        // Spread over the whole field so every branch of the location lookups runs
+        for (int i = 0; i < poseCount; i++) {
+            poses[i] =
+                    new Pose2d(
+                            0.5 + 15.5 * ((i * 37) % poseCount) / poseCount,
+                            0.5 + 7.2 * ((i * 11) % poseCount) / poseCount,
+                            Rotation2d.fromRadians(i * 0.1));
+        }
+    }
+
+    /**
+     * This method is used to run the hot paths a number of times. Call it every cycle while
+     * disabled; each iteration takes a few microseconds.
+     *
+     * @param iterations The number of robot cycles worth of math to run
+     */
+    public static void run(int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            Pose2d pose = poses[iteration % poseCount];
+            double velocityX = Math.sin(iteration * 0.01) * 3.0;
+            double velocityY = Math.cos(iteration * 0.01) * 3.0;
+            timestamp += 0.02;
+
+            odometrySample.timestamp = timestamp;
+            odometrySample.x = pose.getX();
+            odometrySample.y = pose.getY();
+            odometrySample.thetaRadians = pose.getRotation().getRadians();
+            robotState.addOdometrySample(odometrySample);
+            robotState.update(
+                    timestamp,
+                    pose,
+                    velocityX,
+                    velocityY,
+                    0.0,
+                    0.0,
+                    0.0,
+                    (iteration & 1) == 0 ? red : blue);
+
+            kalmanFilter.predict(0.004);
+            kalmanFilter.correctPosition(pose.getX(), 1e-4);
+            kalmanFilter.correctVelocity(velocityX, 1e-2);
+
+            timeToPutAimDown.getValue(velocityY);
+
+            iteration++;
+        }
+    }
+}